@@ -8,8 +8,9 @@ title() {
 
 usage() {
   echo "A script used to compare OpenLineage events generated on two different versions of the same producer."
-  echo "Currently, only files with JSON events are supported. Each OpenLineage event has to be a separate line in the file."
-  echo "In future, a script will be able to extract lineage events from logs if console tranpsort is used."
+  echo "Files with JSON events written by file transport (an event per line or concatenated JSON values) are supported"
+  echo "as well as logs containing events emitted by console transport. Files may be gzip or zstd compressed"
+  echo "or packed into tar or zip archives."
   echo
   title "USAGE:"
   echo "  ./$(basename -- "${0}") --prev PREV_VERSION_EVENTS_FILE --next NEXT_VERSION_EVENTS_FILE"
@@ -18,11 +19,16 @@ usage() {
   echo "  $ ./ol-diff.sh --prev examples/failure/prev.txt --next examples/failure/next.txt "
   echo "  $ ./ol-diff.sh --prev examples/success/prev.txt --next examples/success/next.txt --output output/dir"
   echo "  $ ./ol-diff.sh --prev examples/success/prev.txt --next examples/success/next.txt --config config.yml "
+  echo "  $ ./ol-diff.sh --manifest manifest.txt"
   echo
   title "ARGUMENTS:"
   echo "  --prev string     file with OpenLineage events produced by the previous version of the connector"
   echo "  --next string     file with OpenLineage events produced by the previous version of the connector"
   echo "  --config string   yaml configuration file"
+  echo "  --format string   format of both files: json, spark_log, iso_log or bracketed_log (detected by default)"
+  echo "  --cli             run the checks with the command line jar instead of JUnit tests in Docker, requires java"
+  echo "  --manifest string file with a pair of prev and next files and an optional config per line, compared in a"
+  echo "                    single JVM with the command line jar instead of --prev and --next, requires java"
   exit 1
 }
 
@@ -41,10 +47,21 @@ while [ $# -gt 0 ]; do
        shift
        CONF="${1}"
        ;;
+    --format)
+       shift
+       FORMAT="${1}"
+       ;;
     --output)
        shift
        OUTPUT="${1}"
        ;;
+    --cli)
+       CLI=true
+       ;;
+    --manifest)
+       shift
+       MANIFEST="${1}"
+       ;;
     -h|--help)
        usage
        ;;
@@ -54,6 +71,29 @@ while [ $# -gt 0 ]; do
   shift
 done
 
+run_cli() {
+  CLI_JAR=build/libs/ol-diff-cli.jar
+  CDS_ARCHIVE=build/libs/ol-diff-cli.jsa
+  if [ ! -f "$CLI_JAR" ]; then
+    docker run --rm -u gradle -v "$PWD":/home/gradle/project -w /home/gradle/project gradle:jdk17-ubi  gradle cliJar
+  fi
+  # the archive is only used by the JVM which dumped it, so the first run on this host dumps it,
+  # and it is dumped again whenever the jar is rebuilt
+  if [ -f "$CDS_ARCHIVE" ] && [ ! "$CLI_JAR" -nt "$CDS_ARCHIVE" ]; then
+    CDS_OPTION="-XX:SharedArchiveFile=$CDS_ARCHIVE"
+  else
+    CDS_OPTION="-XX:ArchiveClassesAtExit=$CDS_ARCHIVE"
+  fi
+  # JVMs older than 13 cannot dump the archive and run without it
+  java -XX:+IgnoreUnrecognizedVMOptions "$CDS_OPTION" -Xshare:auto -jar "$CLI_JAR" "$@" --format "$FORMAT"
+  exit $?
+}
+
+if test "$MANIFEST"
+then
+  run_cli --manifest "$MANIFEST"
+fi
+
 if test -z "$PREV"
 then
     echo "prev argument can't be empty"
@@ -70,7 +110,12 @@ then
     exit 1
 fi
 
-docker run --rm -u gradle -v "$PWD":/home/gradle/project -w /home/gradle/project gradle:jdk17-ubi  gradle clean test -Pprev.path=$PREV -Pnext.path=$NEXT -Pconfig=$CONF
+if test "$CLI"
+then
+  run_cli --prev "$PREV" --next "$NEXT" --config "$CONF"
+fi
+
+docker run --rm -u gradle -v "$PWD":/home/gradle/project -w /home/gradle/project gradle:jdk17-ubi  gradle clean test -Pprev.path=$PREV -Pnext.path=$NEXT -Pconfig=$CONF -Pformat=$FORMAT
 
 if test "$OUTPUT"
 then
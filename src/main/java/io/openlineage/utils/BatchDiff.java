@@ -0,0 +1,137 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Diffs many pairs of files listed in a manifest within a single JVM, so that the config, the
+ * mappers and the compiled code are shared by all of them. The pairs are diffed on a work-stealing
+ * pool, the largest ones first to balance the load. The events of each pair are loaded on the same
+ * pool rather than on the common pool, so the parallelism given is the parallelism of the batch.
+ * Each context is dropped as soon as its pair is diffed, so the memory used depends on the
+ * parallelism rather than on the number of pairs.
+ *
+ * <p>Each line of a manifest holds the previous and the next file of a pair, optionally followed by
+ * a config file, separated by whitespace. Relative paths are resolved against the directory of the
+ * manifest. Empty lines and lines starting with {@code #} are skipped.
+ */
+@Slf4j
+public class BatchDiff {
+
+  /** Files of a single pair to be diffed. */
+  @Value
+  public static class Pair {
+    String prevPath;
+    String nextPath;
+    String configYaml;
+  }
+
+  private final ForkJoinPool pool;
+  private final Optional<EventFormat> format;
+  private final Map<String, Config> configs = new ConcurrentHashMap<>();
+
+  public BatchDiff(ForkJoinPool pool, Optional<EventFormat> format) {
+    this.pool = pool;
+    this.format = format;
+  }
+
+  /** Reads the pairs of a manifest in the order of its lines. */
+  public static List<Pair> readManifest(Path manifest) throws IOException {
+    Path directory = manifest.toAbsolutePath().getParent();
+    List<Pair> pairs = new ArrayList<>();
+    int lineNumber = 0;
+    for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+      lineNumber++;
+      String trimmed = line.trim();
+      if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+        continue;
+      }
+      String[] fields = trimmed.split("\\s+");
+      if (fields.length < 2 || fields.length > 3) {
+        throw new IOException(
+            "Expected prev, next and optional config files at line "
+                + lineNumber
+                + " of "
+                + manifest
+                + ": "
+                + line);
+      }
+      pairs.add(
+          new Pair(
+              resolve(directory, fields[0]),
+              resolve(directory, fields[1]),
+              fields.length == 3 ? resolve(directory, fields[2]) : ""));
+    }
+    return pairs;
+  }
+
+  private static String resolve(Path directory, String path) {
+    return directory.resolve(path).normalize().toString();
+  }
+
+  /** Diffs all the pairs and returns the report with the pairs in the order given. */
+  public BatchReport run(List<Pair> pairs) {
+    long[] sizes = pairs.stream().mapToLong(BatchDiff::size).toArray();
+    List<ForkJoinTask<BatchReport.Outcome>> tasks =
+        new ArrayList<>(Collections.nCopies(pairs.size(), null));
+    IntStream.range(0, pairs.size())
+        .boxed()
+        .sorted(Comparator.comparingLong((Integer i) -> sizes[i]).reversed())
+        .forEach(i -> tasks.set(i, pool.submit(() -> diff(pairs.get(i)))));
+
+    BatchReport report = new BatchReport();
+    tasks.forEach(task -> report.add(task.join()));
+    return report;
+  }
+
+  private BatchReport.Outcome diff(Pair pair) {
+    long start = System.nanoTime();
+    DiffReport report = null;
+    String error = null;
+    try {
+      Config config = configs.get(pair.getConfigYaml());
+      if (config == null) {
+        // a config which cannot be read fails each of its pairs
+        config = Context.readConfig(pair.getConfigYaml());
+        configs.putIfAbsent(pair.getConfigYaml(), config);
+      }
+      Context context =
+          Context.createContext(pair.getPrevPath(), pair.getNextPath(), config, format, pool);
+      report = new DiffEngine(context).run();
+    } catch (Exception e) {
+      log.error("Failed to compare {} with {}", pair.getPrevPath(), pair.getNextPath(), e);
+      error = e.toString();
+    }
+    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    return new BatchReport.Outcome(pair, report, error, millis);
+  }
+
+  private static long size(Pair pair) {
+    try {
+      return Files.size(Path.of(pair.getPrevPath())) + Files.size(Path.of(pair.getNextPath()));
+    } catch (IOException e) {
+      // the failure is reported when the pair is diffed
+      return 0;
+    }
+  }
+}
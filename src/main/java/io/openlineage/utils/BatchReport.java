@@ -0,0 +1,77 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.utils.BatchDiff.Pair;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Value;
+
+/** Consolidated results of diffing all the pairs of a manifest, in the order of the manifest. */
+public class BatchReport {
+
+  /** Result of diffing a single pair, either a report or an error when the diff could not run. */
+  @Value
+  public static class Outcome {
+    Pair pair;
+    DiffReport report;
+    String error;
+    long millis;
+
+    public boolean isFailed() {
+      return error == null && !report.isSuccessful();
+    }
+  }
+
+  private final List<Outcome> outcomes = new ArrayList<>();
+
+  void add(Outcome outcome) {
+    outcomes.add(outcome);
+  }
+
+  public List<Outcome> getOutcomes() {
+    return Collections.unmodifiableList(outcomes);
+  }
+
+  public long getFailed() {
+    return outcomes.stream().filter(Outcome::isFailed).count();
+  }
+
+  public long getErrors() {
+    return outcomes.stream().filter(o -> o.error != null).count();
+  }
+
+  /**
+   * Prints a line for each pair followed by its failed checks, or all of them when verbose, and a
+   * summary of all the pairs.
+   */
+  public void print(PrintStream out, boolean verbose) {
+    long millis = 0;
+    for (Outcome outcome : outcomes) {
+      Pair pair = outcome.pair;
+      millis += outcome.millis;
+      if (outcome.error != null) {
+        out.printf("ERROR %s <> %s: %s%n", pair.getPrevPath(), pair.getNextPath(), outcome.error);
+        continue;
+      }
+      DiffReport report = outcome.report;
+      out.printf(
+          "%s %s <> %s (%d checks, %d failed, %d ms)%n",
+          report.isSuccessful() ? "PASSED" : "FAILED",
+          pair.getPrevPath(),
+          pair.getNextPath(),
+          report.getResults().size(),
+          report.getFailures(),
+          outcome.millis);
+      report.printResults(out, verbose, "  ");
+    }
+    out.printf(
+        "%d pairs, %d failed, %d errors, %d ms of diffing%n",
+        outcomes.size(), getFailed(), getErrors(), millis);
+  }
+}
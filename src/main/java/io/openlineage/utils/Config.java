@@ -1,7 +1,9 @@
 package io.openlineage.utils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Map;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -29,6 +31,24 @@ public class Config {
   @JsonProperty("excludeApplicationEvents")
   boolean excludeApplicationEvents;
 
+  /** Returns the section of the config for the kind of facets, null when there is none. */
+  public Map<String, FacetConfig> getFacetConfigs(FacetDecoder.Kind kind) {
+    switch (kind) {
+      case RUN:
+        return run;
+      case JOB:
+        return job;
+      case DATASET:
+        return dataset;
+      case INPUT_DATASET:
+        return inputDataset;
+      case OUTPUT_DATASET:
+        return outputDataset;
+      default:
+        throw new IllegalArgumentException("Unknown kind of facets " + kind);
+    }
+  }
+
   @Setter
   @NoArgsConstructor
   static class FacetConfig {
@@ -36,20 +56,23 @@ public class Config {
 
     @Getter String[] ignoredProperties;
 
+    /** Ignored properties compiled when they are set, see {@link IgnoredPaths} for the rules. */
+    @JsonIgnore
+    @Getter
+    @Setter(AccessLevel.NONE)
+    IgnoredPaths ignoredPaths = IgnoredPaths.NONE;
+
+    public void setIgnoredProperties(String[] ignoredProperties) {
+      this.ignoredProperties = ignoredProperties;
+      this.ignoredPaths = IgnoredPaths.compile(ignoredProperties);
+    }
+
     public boolean isDisabled() {
       return disabled != null && disabled;
     }
 
     public boolean isPropertyIgnored(String property) {
-      if (ignoredProperties == null) {
-        return false;
-      }
-      for (String ignoredProperty : ignoredProperties) {
-        if (ignoredProperty.equals(property)) {
-          return true;
-        }
-      }
-      return false;
+      return ignoredPaths.isIgnored(property);
     }
   }
 }
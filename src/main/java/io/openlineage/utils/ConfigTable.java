@@ -0,0 +1,70 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.utils.Config.FacetConfig;
+import io.openlineage.utils.FacetDecoder.Kind;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Decisions of a {@link Config} about the facets, compiled once into an immutable table keyed by
+ * the kind of the facet and its name. Each section of the config, run, job, dataset, input dataset
+ * and output dataset, is looked up the same way, with a single lookup per facet. The table does not
+ * change when the config is modified afterwards, and it is safe to share between threads.
+ */
+public final class ConfigTable {
+
+  /** Whether a facet is checked, and which of its properties are ignored. */
+  @Value
+  public static class FacetRule {
+    static final FacetRule DEFAULT = new FacetRule(false, IgnoredPaths.NONE);
+
+    boolean disabled;
+    IgnoredPaths ignoredPaths;
+  }
+
+  private final Map<Kind, Map<String, FacetRule>> rules;
+
+  private ConfigTable(Map<Kind, Map<String, FacetRule>> rules) {
+    this.rules = rules;
+  }
+
+  public static ConfigTable of(Config config) {
+    Map<Kind, Map<String, FacetRule>> rules = new EnumMap<>(Kind.class);
+    for (Kind kind : Kind.values()) {
+      Map<String, FacetConfig> facetConfigs = config.getFacetConfigs(kind);
+      Map<String, FacetRule> kindRules = new HashMap<>();
+      if (facetConfigs != null) {
+        facetConfigs.forEach(
+            (facetName, facetConfig) ->
+                kindRules.put(
+                    facetName,
+                    facetConfig == null
+                        ? FacetRule.DEFAULT
+                        : new FacetRule(facetConfig.isDisabled(), facetConfig.getIgnoredPaths())));
+      }
+      rules.put(kind, Collections.unmodifiableMap(kindRules));
+    }
+    return new ConfigTable(Collections.unmodifiableMap(rules));
+  }
+
+  /** Returns the rule of the facet, the default one when the config does not mention the facet. */
+  public FacetRule get(Kind kind, String facetName) {
+    return rules.get(kind).getOrDefault(facetName, FacetRule.DEFAULT);
+  }
+
+  public boolean isDisabled(Kind kind, String facetName) {
+    return get(kind, facetName).isDisabled();
+  }
+
+  public IgnoredPaths getIgnoredPaths(Kind kind, String facetName) {
+    return get(kind, facetName).getIgnoredPaths();
+  }
+}
@@ -7,195 +7,417 @@ package io.openlineage.utils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
-import io.openlineage.client.OpenLineage.ParentRunFacet;
-import io.openlineage.client.OpenLineage.ParentRunFacetRun;
-import io.openlineage.client.OpenLineage.Run;
 import io.openlineage.client.OpenLineage.RunEvent;
-import io.openlineage.client.OpenLineage.RunEvent.EventType;
-import io.openlineage.client.OpenLineage.RunFacets;
 import io.openlineage.client.OpenLineageClientUtils;
+import io.openlineage.utils.RunAligner.RunAlignment;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import lombok.AllArgsConstructor;
+import java.util.stream.LongStream;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.SneakyThrows;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
-/** Common methods to be shared among the tests */
+/**
+ * Common methods to be shared among the tests. A context loaded from the files given with system
+ * properties is shared by all the tests within the JVM.
+ */
 @Getter
-@AllArgsConstructor
 @Slf4j
 public class Context {
 
-  private static final String CONSOLE_TRANSPORT_LOG = "ConsoleTransport: ";
+  private static final Map<ContextKey, Context> CONTEXTS = new ConcurrentHashMap<>();
+  private static final ObjectMapper YAML_MAPPER = new ObjectMapper(new YAMLFactory());
 
-  List<RunEvent> prevEvents;
-  List<RunEvent> nextEvents;
-  Config config;
+  /**
+   * Previous version events, decoded part by part on each access, see {@link EventRecord}. There
+   * are no views of fully decoded events, the helpers decode each part once and keep it.
+   */
+  final List<EventRecord> prevRecords;
 
+  /** Next version events, like {@link #prevRecords}. */
+  final List<EventRecord> nextRecords;
+
+  final Config config;
+
+  /** Decisions of the config about the facets, compiled when the context is created. */
+  final ConfigTable configTable;
+
+  @Getter(AccessLevel.NONE)
+  final RunEventIndex prevIndex;
+
+  @Getter(AccessLevel.NONE)
+  final RunEventIndex nextIndex;
+
+  @Getter(AccessLevel.NONE)
+  private volatile RunAlignment runAlignment;
+
+  public Context(List<RunEvent> prevEvents, List<RunEvent> nextEvents, Config config) {
+    this(
+        EventRecord.asRecords(prevEvents),
+        EventRecord.asRecords(nextEvents),
+        config,
+        ConfigTable.of(config));
+  }
+
+  private Context(
+      List<EventRecord> prevRecords,
+      List<EventRecord> nextRecords,
+      Config config,
+      ConfigTable configTable) {
+    this.prevRecords = prevRecords;
+    this.nextRecords = nextRecords;
+    this.config = config;
+    this.configTable = configTable;
+    this.prevIndex = new RunEventIndex(prevRecords);
+    this.nextIndex = new RunEventIndex(nextRecords);
+  }
+
+  /** Creates a context of records with only their envelopes decoded. */
+  public static Context ofRecords(
+      List<EventRecord> prevRecords, List<EventRecord> nextRecords, Config config) {
+    return new Context(prevRecords, nextRecords, config, ConfigTable.of(config));
+  }
+
+  /**
+   * Creates a context of the records of a single pair of runs, sharing the compiled config with the
+   * contexts of the other pairs, see {@link StreamingDiff}.
+   */
+  static Context ofRun(
+      List<EventRecord> prevRecords,
+      List<EventRecord> nextRecords,
+      Config config,
+      ConfigTable configTable) {
+    return new Context(prevRecords, nextRecords, config, configTable);
+  }
+
+  /** Returns the previous version records of the run, without scanning all the events. */
+  public List<EventRecord> getPrevRecords(UUID runId) {
+    return prevIndex.get(runId);
+  }
+
+  /** Returns the next version records of the run, without scanning all the events. */
+  public List<EventRecord> getNextRecords(UUID runId) {
+    return nextIndex.get(runId);
+  }
+
+  /**
+   * Returns the context for the files given with system properties. The context is loaded once and
+   * reused until any of the files changes its size or modification time.
+   */
   public static Context loadContext() {
-    Config config;
-    if (!System.getProperty("configYaml").isEmpty()) {
-      ObjectMapper objectMapper = new ObjectMapper(new YAMLFactory());
+    return loadContext(
+        System.getProperty("prev.path"),
+        System.getProperty("next.path"),
+        System.getProperty("configYaml"),
+        EventFormat.fromName(System.getProperty("format")));
+  }
 
-      log.info("Loading config from {}", System.getProperty("configYaml"));
-      try {
-        config = objectMapper.readValue(new File(System.getProperty("configYaml")), Config.class);
+  /**
+   * Returns the context for the files. The context is loaded once and reused until any of the files
+   * changes its size or modification time. An empty or null config path stands for the default
+   * config, an empty format for detecting the format of each file.
+   */
+  public static Context loadContext(
+      String prevPath, String nextPath, String configYaml, Optional<EventFormat> format) {
+    String config = configYaml == null ? "" : configYaml;
+    ContextKey key =
+        new ContextKey(
+            FileKey.of(prevPath),
+            FileKey.of(nextPath),
+            config.isEmpty() ? null : FileKey.of(config),
+            format.orElse(null));
+    // contexts of the files which have been modified since are not needed anymore
+    CONTEXTS.keySet().removeIf(k -> k.hasSamePaths(key) && !k.equals(key));
+    return CONTEXTS.computeIfAbsent(key, k -> createContext(prevPath, nextPath, config, format));
+  }
 
-        log.info("Config loaded: {}", OpenLineageClientUtils.toJson(config));
-      } catch (Exception e) {
-        log.error("Error loading config from {}", System.getProperty("configYaml"), e);
-        config = new Config();
-      }
-    } else {
-      log.info("No config yaml provided, using default config");
-      config = new Config();
-    }
+  private static Context createContext(
+      String prevPath, String nextPath, String configYaml, Optional<EventFormat> format) {
+    return createContext(prevPath, nextPath, loadConfig(configYaml), format);
+  }
+
+  /** Loads the events of both files into a new context, which is not cached. */
+  static Context createContext(
+      String prevPath, String nextPath, Config config, Optional<EventFormat> format) {
+    return createContext(prevPath, nextPath, config, format, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Loads the events of both files into a new context, which is not cached, on the given pool
+   * rather than on the common pool.
+   */
+  static Context createContext(
+      String prevPath,
+      String nextPath,
+      Config config,
+      Optional<EventFormat> format,
+      ForkJoinPool pool) {
+    return createContext(prevPath, nextPath, config, format, envelope -> true, pool);
+  }
+
+  /**
+   * Loads the events of both files accepted by the filter into a new context, which is not cached.
+   * Logs with an {@link EventOffsetIndex} are read only where the accepted events are.
+   */
+  static Context createContext(
+      String prevPath,
+      String nextPath,
+      Config config,
+      Optional<EventFormat> format,
+      Predicate<EventEnvelope> filter) {
+    return createContext(prevPath, nextPath, config, format, filter, ForkJoinPool.commonPool());
+  }
+
+  private static Context createContext(
+      String prevPath,
+      String nextPath,
+      Config config,
+      Optional<EventFormat> format,
+      Predicate<EventEnvelope> filter,
+      ForkJoinPool pool) {
+    format.ifPresent(f -> log.info("Using {} format for both files", f));
+    // both files are independent, the previous one is loaded in the background
+    CompletableFuture<List<EventRecord>> prevRecords =
+        CompletableFuture.supplyAsync(
+            () -> loadRecords("previous", prevPath, format, filter, pool), pool);
+    List<EventRecord> nextRecords = loadRecords("next", nextPath, format, filter, pool);
 
-    return new Context(
-        getRunEvents(System.getProperty("prev.path")),
-        getRunEvents(System.getProperty("next.path")),
+    return ofRecords(
+        Collections.unmodifiableList(join(prevRecords)),
+        Collections.unmodifiableList(nextRecords),
         config);
   }
 
+  private static List<EventRecord> loadRecords(
+      String version,
+      String path,
+      Optional<EventFormat> format,
+      Predicate<EventEnvelope> filter,
+      ForkJoinPool pool) {
+    long start = System.nanoTime();
+    List<EventRecord> records = getEventRecords(path, format, filter, pool);
+    log.info(
+        "Loaded {} events of the {} version in {} ms",
+        records.size(),
+        version,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return records;
+  }
+
   @SneakyThrows
-  public static List<RunEvent> getRunEvents(String path) {
-    boolean containsLogs =
-        Files.lines(Path.of(path))
-            // none of the lines starts as log pattern
-            .anyMatch(line -> !line.matches("\\d\\d/\\d\\d/\\d\\d.*"));
-
-    if (!containsLogs) {
-      log.info("Loading run events from jsons: {}", path);
-      return getRunEventsFromJsons(path);
-    } else {
-      log.info("Loading run events from logs: {}", path);
-      return getRunEventsFromLogs(path);
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause();
     }
   }
 
+  /**
+   * Loads the config for the tests like {@link #readConfig}, failing them when the file cannot be
+   * read or has a malformed rule.
+   */
+  static Config loadConfig(String configYaml) {
+    try {
+      return readConfig(configYaml);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to load the config from " + configYaml, e);
+    }
+  }
+
+  /**
+   * Reads the config from the file, or returns the default config when the path is empty.
+   *
+   * @throws IOException when the file cannot be read or has a malformed rule
+   */
+  static Config readConfig(String configYaml) throws IOException {
+    if (configYaml.isEmpty()) {
+      log.info("No config yaml provided, using default config");
+      return new Config();
+    }
+    log.info("Loading config from {}", configYaml);
+    Config config = YAML_MAPPER.readValue(new File(configYaml), Config.class);
+    log.info("Config loaded: {}", OpenLineageClientUtils.toJson(config));
+    return config;
+  }
+
+  public static List<RunEvent> getRunEvents(String path) {
+    return getRunEvents(path, Optional.empty());
+  }
+
+  /** Loads the events from a file and fully decodes each of them. */
+  public static List<RunEvent> getRunEvents(String path, Optional<EventFormat> format) {
+    return decode(getEventRecords(path, format));
+  }
+
+  /**
+   * Loads the events from a file with either JSON events or logs. Chunks of the file are parsed in
+   * parallel and only the envelopes of the events are decoded. Compressed files and archives are
+   * decompressed while being parsed, see {@link StreamEventLoader}. When no format is given, it is
+   * detected from the beginning of the file. A valid {@link EventSnapshot} of the file is loaded
+   * instead of parsing it.
+   */
+  public static List<EventRecord> getEventRecords(String path, Optional<EventFormat> format) {
+    return getEventRecords(path, format, envelope -> true);
+  }
+
+  /**
+   * Loads the events accepted by the filter from a file, like {@link #getEventRecords(String,
+   * Optional)}. A valid {@link EventOffsetIndex} of a log is used instead of scanning it and one is
+   * written when a large log is scanned. The raw events of large files are kept off the heap, see
+   * {@link OffHeapEventStore}.
+   */
+  public static List<EventRecord> getEventRecords(
+      String path, Optional<EventFormat> format, Predicate<EventEnvelope> filter) {
+    return getEventRecords(path, format, filter, ForkJoinPool.commonPool());
+  }
+
   @SneakyThrows
-  public static List<RunEvent> getRunEventsFromLogs(String path) {
-    List<String> lines = Files.lines(Path.of(path)).collect(Collectors.toList());
-    List<RunEvent> events = new ArrayList<>();
-
-    // newlines can also occur in the logs in the middle of OpenLineage event
-    boolean inEvent = false;
-    StringBuilder json = new StringBuilder();
-    for (String line : lines) {
-      boolean isLogLine = line.matches("\\d\\d/\\d\\d/\\d\\d.*");
-      if (line.contains(CONSOLE_TRANSPORT_LOG)) {
-        if (inEvent) {
-          // ending the previous event events are present line by line
-          log.info("Whole event detected: {}", json.toString());
-          events.add(OpenLineageClientUtils.runEventFromJson(json.toString()));
-        }
-
-        log.info("Starting new event");
-        inEvent = true;
-        json = new StringBuilder();
-        int index = line.indexOf(CONSOLE_TRANSPORT_LOG);
-        json.append(line.substring(index + CONSOLE_TRANSPORT_LOG.length()));
-      } else {
-        if (inEvent) {
-          if (isLogLine) {
-            // ending the event
-            log.info("Whole event detected: {}", json.toString());
-            events.add(OpenLineageClientUtils.runEventFromJson(json.toString()));
-            inEvent = false;
-
-            // see if the new line is not starting a new event
-            if (line.contains(CONSOLE_TRANSPORT_LOG)) {
-              log.info("Starting new event");
-              inEvent = true;
-              json = new StringBuilder();
-              int index = line.indexOf(CONSOLE_TRANSPORT_LOG);
-              json.append(line.substring(index + CONSOLE_TRANSPORT_LOG.length()));
-            }
-          } else {
-            // append whole line to json
-            log.info("Appending new json line");
-            json.append(line);
-          }
-        }
+  private static List<EventRecord> getEventRecords(
+      String path,
+      Optional<EventFormat> format,
+      Predicate<EventEnvelope> filter,
+      ForkJoinPool pool) {
+    log.info("Loading run events from: {}", path);
+    Path file = Path.of(path);
+    // the records remain readable once the store is closed
+    try (EventStore store = EventStore.forSource(file)) {
+      Optional<List<EventRecord>> snapshot = EventSnapshot.read(file, format, store);
+      if (snapshot.isPresent()) {
+        return filter(snapshot.get(), filter);
+      }
+      Optional<List<EventRecord>> indexed = EventOffsetIndex.read(file, format, filter, store);
+      if (indexed.isPresent()) {
+        return indexed.get();
       }
+      return filter(parseEventRecords(file, format, store, pool), filter);
     }
-    return events;
   }
 
-  @SneakyThrows
-  private static List<RunEvent> getRunEventsFromJsons(String path) {
-    return Collections.emptyList();
+  /** Parses the events from a file, regardless of any snapshot or index of it. */
+  static List<EventRecord> parseEventRecords(Path file, Optional<EventFormat> format)
+      throws IOException {
+    return parseEventRecords(file, format, EventStore.HEAP, ForkJoinPool.commonPool());
   }
 
-  public List<SparkActionId> getSparkActionsIds() {
-    List<UUID> prevAppUuids = getApplicationRunIds(prevEvents);
-    List<UUID> prevUuids =
-        prevEvents.stream()
-            .filter(e -> EventType.START.equals(e.getEventType())) // get start event
-            .map(e -> e.getRun().getRunId())
-            .filter(e -> !prevAppUuids.contains(e))
-            .collect(Collectors.toList());
-
-    List<String> prevJobs =
-        prevEvents.stream()
-            .filter(e -> EventType.START.equals(e.getEventType())) // get start event
-            .filter(e -> !prevAppUuids.contains(e.getRun().getRunId()))
-            .map(e -> e.getJob().getName())
-            .collect(Collectors.toList());
-
-    List<UUID> nextAppUuids = getApplicationRunIds(nextEvents);
-    List<UUID> nextUuids =
-        nextEvents.stream()
-            .filter(e -> EventType.START.equals(e.getEventType())) // get start event
-            .map(e -> e.getRun().getRunId())
-            .filter(e -> !nextAppUuids.contains(e))
-            .collect(Collectors.toList());
-
-    if (prevUuids.size() != nextUuids.size()) {
-      log.warn(
-          "Different number of spark actions in the previous and next run: {} {}",
-          prevUuids,
-          nextUuids);
-      return Collections.emptyList();
+  private static List<EventRecord> parseEventRecords(
+      Path file, Optional<EventFormat> format, EventStore store, ForkJoinPool pool)
+      throws IOException {
+    if (StreamEventLoader.isPacked(file)) {
+      return new StreamEventLoader(store).load(file, format);
     }
+    EventFormat eventFormat = format.isPresent() ? format.get() : EventFormatDetector.detect(file);
+    List<EventRecord> records = new ArrayList<>();
+    LongStream.Builder starts = LongStream.builder();
+    new ParallelEventLoader(pool, ParallelEventLoader.MIN_CHUNK_SIZE, store)
+        .load(
+            file,
+            eventFormat,
+            (start, record) -> {
+              records.add(record);
+              starts.add(start);
+            });
+    if (eventFormat.isLog() && Files.size(file) >= EventOffsetIndex.MIN_SOURCE_SIZE) {
+      try {
+        EventOffsetIndex.write(file, eventFormat, records, starts.build().toArray());
+      } catch (IOException e) {
+        log.warn("Failed to write the index of {}", file, e);
+      }
+    }
+    return records;
+  }
 
-    List<SparkActionId> actionIds = new ArrayList<>();
-    for (int i = 0; i < prevUuids.size(); i++) {
-      actionIds.add(
-          SparkActionId.builder()
-              .jobName(prevJobs.get(i))
-              .nextRunId(nextUuids.get(i))
-              .prevRunId(prevUuids.get(i))
-              .build());
+  private static List<EventRecord> filter(
+      List<EventRecord> records, Predicate<EventEnvelope> filter) {
+    return records.stream()
+        .filter(record -> filter.test(record.getEnvelope()))
+        .collect(Collectors.toList());
+  }
+
+  /** Loads the events from a Spark log, with its index when there is one. */
+  public static List<RunEvent> getRunEventsFromLogs(String path) {
+    return decode(getEventRecords(path, Optional.of(EventFormat.SPARK_LOG)));
+  }
+
+  /** Loads the events from a file written by {@code FileTransport}, with its snapshot if any. */
+  public static List<RunEvent> getRunEventsFromJsons(String path) {
+    return decode(getEventRecords(path, Optional.of(EventFormat.JSON)));
+  }
+
+  private static List<RunEvent> decode(List<EventRecord> records) {
+    return records.stream().map(EventRecord::toRunEvent).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the Spark actions of the previous version matched with the Spark actions of the next
+   * version, see {@link RunAligner}. Actions without a counterpart are left out.
+   */
+  public List<SparkActionId> getSparkActionsIds() {
+    return getRunAlignment().getMatched();
+  }
+
+  /** Returns the alignment of the runs of both versions, computed on the first use. */
+  RunAlignment getRunAlignment() {
+    RunAlignment alignment = runAlignment;
+    if (alignment == null) {
+      alignment = RunAligner.align(prevRecords, nextRecords, config.isExcludeApplicationEvents());
+      if (!alignment.isComplete()) {
+        log.warn(
+            "Spark actions without a counterpart, in the previous run {}, in the next run {}",
+            alignment.getUnmatchedPrev(),
+            alignment.getUnmatchedNext());
+      }
+      if (alignment.getMatched().isEmpty()) {
+        log.warn("No spark actions found in the previous and next run");
+      }
+      runAlignment = alignment;
     }
-    if (actionIds.isEmpty()) {
-      log.warn("No spark actions found in the previous and next run");
+    return alignment;
+  }
+
+  @Value
+  private static class ContextKey {
+    FileKey prev;
+    FileKey next;
+    FileKey config;
+    EventFormat format;
+
+    boolean hasSamePaths(ContextKey other) {
+      return prev.path.equals(other.prev.path)
+          && next.path.equals(other.next.path)
+          && Objects.equals(
+              config == null ? null : config.path, other.config == null ? null : other.config.path);
     }
-    return actionIds;
   }
 
-  private List<UUID> getApplicationRunIds(List<RunEvent> events) {
-    if (!config.isExcludeApplicationEvents()) {
-      return Collections.emptyList();
+  @Value
+  private static class FileKey {
+    Path path;
+    long size;
+    long lastModified;
+
+    static FileKey of(String path) {
+      File file = new File(path).getAbsoluteFile();
+      return new FileKey(file.toPath().normalize(), file.length(), file.lastModified());
     }
-    return events.stream()
-        .map(RunEvent::getRun)
-        .map(Run::getFacets)
-        .filter(Objects::nonNull)
-        .map(RunFacets::getParent)
-        .filter(Objects::nonNull)
-        .map(ParentRunFacet::getRun)
-        .filter(Objects::nonNull)
-        .map(ParentRunFacetRun::getRunId)
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
   }
 }
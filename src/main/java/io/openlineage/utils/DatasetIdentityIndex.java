@@ -0,0 +1,98 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.Dataset;
+import io.openlineage.client.OpenLineage.SymlinksDatasetFacetIdentifiers;
+import io.openlineage.client.utils.DatasetIdentifier;
+import io.openlineage.client.utils.DatasetIdentifier.Symlink;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Identity of datasets across both versions. Each {@code (namespace, name)} pair is interned to an
+ * integer and pairs linked by symlinks are merged into a single equivalence class with union-find.
+ * Two datasets are the same if their classes are equal, which is a single integer comparison once
+ * the classes are known.
+ *
+ * <p>Datasets are registered when their class is requested, so only the datasets of the runs which
+ * are actually compared are ever decoded. Registering a dataset may merge classes, hence classes
+ * are stable only among datasets registered before any of them is grouped, as done by {@link
+ * DatasetReconciliation}.
+ */
+public class DatasetIdentityIndex {
+
+  private final Map<String, Map<String, Integer>> ids = new HashMap<>();
+  private int[] parents = new int[64];
+  private int size;
+
+  /** Returns the equivalence class of the dataset, registering the dataset if needed. */
+  public synchronized int classOf(Dataset dataset) {
+    int id = intern(dataset.getNamespace(), dataset.getName());
+    if (dataset.getFacets() != null
+        && dataset.getFacets().getSymlinks() != null
+        && dataset.getFacets().getSymlinks().getIdentifiers() != null) {
+      for (SymlinksDatasetFacetIdentifiers symlink :
+          dataset.getFacets().getSymlinks().getIdentifiers()) {
+        union(id, intern(symlink.getNamespace(), symlink.getName()));
+      }
+    }
+    return find(id);
+  }
+
+  /** Returns the equivalence class of the dataset, registering the dataset if needed. */
+  public synchronized int classOf(DatasetIdentifier identifier) {
+    int id = intern(identifier.getNamespace(), identifier.getName());
+    if (identifier.getSymlinks() != null) {
+      for (Symlink symlink : identifier.getSymlinks()) {
+        union(id, intern(symlink.getNamespace(), symlink.getName()));
+      }
+    }
+    return find(id);
+  }
+
+  public boolean isSameDataset(Dataset d1, Dataset d2) {
+    return classOf(d1) == classOf(d2);
+  }
+
+  private int intern(String namespace, String name) {
+    Map<String, Integer> names = ids.computeIfAbsent(namespace, k -> new HashMap<>());
+    Integer id = names.get(name);
+    if (id == null) {
+      if (size == parents.length) {
+        parents = Arrays.copyOf(parents, size * 2);
+      }
+      id = size;
+      parents[size++] = id;
+      names.put(name, id);
+    }
+    return id;
+  }
+
+  private int find(int id) {
+    int root = id;
+    while (parents[root] != root) {
+      root = parents[root];
+    }
+    // path compression
+    while (parents[id] != root) {
+      int next = parents[id];
+      parents[id] = root;
+      id = next;
+    }
+    return root;
+  }
+
+  private void union(int id1, int id2) {
+    int root1 = find(id1);
+    int root2 = find(id2);
+    if (root1 != root2) {
+      // the name registered first becomes the root of the class
+      parents[Math.max(root1, root2)] = Math.min(root1, root2);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.utils.DatasetIdentifier;
+import io.openlineage.client.utils.DatasetIdentifier.Symlink;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.Getter;
+
+/**
+ * Datasets of a single Spark action matched between the previous and the next version. Datasets are
+ * hash joined on their class in a {@link DatasetIdentityIndex} of the datasets of the action only,
+ * so reconciling a run is linear in the number of its datasets and symlinks of other actions never
+ * merge its datasets. Each dataset class keeps all the occurrences of the dataset in the events of
+ * the run.
+ */
+public class DatasetReconciliation<F> {
+
+  /** Class of each name of the datasets, including their symlinks, fixed when grouped. */
+  private final Map<String, Map<String, Integer>> classes;
+
+  private final Map<Integer, List<DatasetRecord<F>>> prev;
+  private final Map<Integer, List<DatasetRecord<F>>> next;
+
+  /** Classes of datasets present in both versions, in the order of the previous version. */
+  @Getter private final List<Integer> matched = new ArrayList<>();
+
+  /** Classes of datasets present only in the previous version. */
+  @Getter private final List<Integer> missing = new ArrayList<>();
+
+  /** Classes of datasets present only in the next version. */
+  @Getter private final List<Integer> extra = new ArrayList<>();
+
+  private DatasetReconciliation(
+      Map<String, Map<String, Integer>> classes,
+      Map<Integer, List<DatasetRecord<F>>> prev,
+      Map<Integer, List<DatasetRecord<F>>> next) {
+    this.classes = classes;
+    this.prev = prev;
+    this.next = next;
+    for (Integer datasetClass : prev.keySet()) {
+      (next.containsKey(datasetClass) ? matched : missing).add(datasetClass);
+    }
+    for (Integer datasetClass : next.keySet()) {
+      if (!prev.containsKey(datasetClass)) {
+        extra.add(datasetClass);
+      }
+    }
+  }
+
+  public static <F> DatasetReconciliation<F> of(
+      List<DatasetRecord<F>> prevDatasets, List<DatasetRecord<F>> nextDatasets) {
+    DatasetIdentityIndex identities = new DatasetIdentityIndex();
+    // register all the datasets first, so that symlinks merge classes before grouping
+    prevDatasets.forEach(dataset -> identities.classOf(dataset.getIdentifier()));
+    nextDatasets.forEach(dataset -> identities.classOf(dataset.getIdentifier()));
+    Map<String, Map<String, Integer>> classes = new HashMap<>();
+    return new DatasetReconciliation<>(
+        classes,
+        group(identities, prevDatasets, classes),
+        group(identities, nextDatasets, classes));
+  }
+
+  private static <F> Map<Integer, List<DatasetRecord<F>>> group(
+      DatasetIdentityIndex identities,
+      List<DatasetRecord<F>> datasets,
+      Map<String, Map<String, Integer>> classes) {
+    Map<Integer, List<DatasetRecord<F>>> grouped = new LinkedHashMap<>();
+    for (DatasetRecord<F> dataset : datasets) {
+      DatasetIdentifier identifier = dataset.getIdentifier();
+      int datasetClass = identities.classOf(identifier);
+      grouped.computeIfAbsent(datasetClass, k -> new ArrayList<>()).add(dataset);
+      put(classes, identifier.getNamespace(), identifier.getName(), datasetClass);
+      if (identifier.getSymlinks() != null) {
+        for (Symlink symlink : identifier.getSymlinks()) {
+          put(classes, symlink.getNamespace(), symlink.getName(), datasetClass);
+        }
+      }
+    }
+    return grouped;
+  }
+
+  private static void put(
+      Map<String, Map<String, Integer>> classes, String namespace, String name, int datasetClass) {
+    classes.computeIfAbsent(namespace, k -> new HashMap<>()).put(name, datasetClass);
+  }
+
+  /**
+   * Returns the class of the dataset, by its name or any of its symlinks, as grouped among the
+   * datasets of the action, or -1 when the action has no such dataset.
+   */
+  public int classOf(DatasetIdentifier identifier) {
+    Integer datasetClass = lookup(identifier.getNamespace(), identifier.getName());
+    if (datasetClass == null && identifier.getSymlinks() != null) {
+      for (Symlink symlink : identifier.getSymlinks()) {
+        datasetClass = lookup(symlink.getNamespace(), symlink.getName());
+        if (datasetClass != null) {
+          break;
+        }
+      }
+    }
+    return datasetClass == null ? -1 : datasetClass;
+  }
+
+  private Integer lookup(String namespace, String name) {
+    Map<String, Integer> names = classes.get(namespace);
+    return names == null ? null : names.get(name);
+  }
+
+  /** Classes of all the datasets from the previous version. */
+  public Set<Integer> getPrevClasses() {
+    return Collections.unmodifiableSet(prev.keySet());
+  }
+
+  public List<DatasetRecord<F>> getPrev(int datasetClass) {
+    return prev.getOrDefault(datasetClass, Collections.emptyList());
+  }
+
+  public List<DatasetRecord<F>> getNext(int datasetClass) {
+    return next.getOrDefault(datasetClass, Collections.emptyList());
+  }
+
+  /** First occurrence of each dataset present only in the previous version. */
+  public List<DatasetRecord<F>> getMissingDatasets() {
+    return missing.stream().map(c -> prev.get(c).get(0)).collect(Collectors.toList());
+  }
+
+  /** First occurrence of each dataset present only in the next version. */
+  public List<DatasetRecord<F>> getExtraDatasets() {
+    return extra.stream().map(c -> next.get(c).get(0)).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,122 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.openlineage.client.OpenLineage.DatasetFacet;
+import io.openlineage.client.OpenLineage.InputDataset;
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
+import io.openlineage.client.OpenLineage.OutputDataset;
+import io.openlineage.client.OpenLineage.OutputDatasetFacet;
+import io.openlineage.client.utils.DatasetIdentifier;
+import io.openlineage.client.utils.DatasetIdentifier.SymlinkType;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Input or output dataset of an event with its facets decoded into generic facets, keyed by facet
+ * name, like the facets of runs and jobs. The identifier of the dataset carries its symlinks, read
+ * from the generic {@code symlinks} facet. Datasets of raw events are decoded straight from the
+ * parser, without deserializing the dataset POJOs of OpenLineage.
+ *
+ * @param <F> the generic input or output facet, for the input or output facets of the dataset
+ */
+@Value
+public class DatasetRecord<F> {
+
+  DatasetIdentifier identifier;
+  Map<String, DatasetFacet> facets;
+
+  /** Input facets of an input dataset, output facets of an output dataset. */
+  Map<String, F> ioFacets;
+
+  public String getNamespace() {
+    return identifier.getNamespace();
+  }
+
+  public String getName() {
+    return identifier.getName();
+  }
+
+  /** Converts a deserialized input dataset. */
+  public static DatasetRecord<InputDatasetFacet> of(InputDataset dataset) {
+    return new DatasetRecord<>(
+        DatasetUtils.toDatasetIdentifier(dataset),
+        FacetDecoder.datasetFacets(dataset.getFacets()),
+        FacetDecoder.inputDatasetFacets(dataset.getInputFacets()));
+  }
+
+  /** Converts a deserialized output dataset. */
+  public static DatasetRecord<OutputDatasetFacet> of(OutputDataset dataset) {
+    return new DatasetRecord<>(
+        DatasetUtils.toDatasetIdentifier(dataset),
+        FacetDecoder.datasetFacets(dataset.getFacets()),
+        FacetDecoder.outputDatasetFacets(dataset.getOutputFacets()));
+  }
+
+  /**
+   * Decodes the dataset object the parser is positioned at. The input or output facets are read
+   * from the field with the given name, as the kind of facets given.
+   */
+  static <F> DatasetRecord<F> read(JsonParser parser, String ioField, FacetDecoder.Kind ioKind)
+      throws IOException {
+    String namespace = null;
+    String name = null;
+    Map<String, DatasetFacet> facets = null;
+    Map<String, F> ioFacets = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      if (parser.nextToken() == JsonToken.VALUE_NULL) {
+        continue;
+      }
+      if ("namespace".equals(field)) {
+        namespace = parser.getText();
+      } else if ("name".equals(field)) {
+        name = parser.getText();
+      } else if ("facets".equals(field)) {
+        facets = FacetDecoder.read(parser, FacetDecoder.Kind.DATASET);
+      } else if (ioField.equals(field)) {
+        ioFacets = FacetDecoder.read(parser, ioKind);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (facets == null) {
+      facets = new LinkedHashMap<>();
+    }
+    return new DatasetRecord<>(
+        identifier(namespace, name, facets),
+        facets,
+        ioFacets == null ? new LinkedHashMap<>() : ioFacets);
+  }
+
+  /** Identifier of the dataset with the symlinks of its generic {@code symlinks} facet. */
+  private static DatasetIdentifier identifier(
+      String namespace, String name, Map<String, DatasetFacet> facets) {
+    DatasetIdentifier identifier = new DatasetIdentifier(name, namespace);
+    DatasetFacet symlinks = facets.get("symlinks");
+    Object identifiers =
+        symlinks == null ? null : symlinks.getAdditionalProperties().get("identifiers");
+    if (identifiers instanceof List) {
+      for (Object symlink : (List<?>) identifiers) {
+        if (symlink instanceof Map) {
+          Map<?, ?> properties = (Map<?, ?>) symlink;
+          Object type = properties.get("type");
+          identifier.withSymlink(
+              (String) properties.get("name"),
+              (String) properties.get("namespace"),
+              type == null ? null : SymlinkType.valueOf(type.toString().toUpperCase(Locale.ROOT)));
+        }
+      }
+    }
+    return identifier;
+  }
+}
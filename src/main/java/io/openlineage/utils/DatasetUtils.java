@@ -4,10 +4,9 @@ import io.openlineage.client.OpenLineage.Dataset;
 import io.openlineage.client.utils.DatasetIdentifier;
 import io.openlineage.client.utils.DatasetIdentifier.Symlink;
 import io.openlineage.client.utils.DatasetIdentifier.SymlinkType;
-import java.util.HashSet;
-import java.util.Set;
-import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 
 public class DatasetUtils {
 
@@ -20,15 +19,21 @@ public class DatasetUtils {
 
   /**
    * Checks if two datasets have the same name. Datasets are the same if they have the same dataset
-   * identifier or any of their symlinks are the same.
+   * identifier or any of their symlinks are the same. For comparing many datasets, use {@link
+   * DatasetIdentityIndex} instead.
    */
   public static boolean areSameName(DatasetIdentifier o1, DatasetIdentifier o2) {
-    Set<DatasetName> o1Names = namesFrom(o1);
-    Set<DatasetName> o2Names = namesFrom(o2);
-
-    Set<DatasetName> intersection = o1Names;
-    intersection.retainAll(o2Names);
-    return !intersection.isEmpty();
+    if (hasName(o2, o1.getNamespace(), o1.getName())) {
+      return true;
+    }
+    if (o1.getSymlinks() != null) {
+      for (Symlink symlink : o1.getSymlinks()) {
+        if (hasName(o2, symlink.getNamespace(), symlink.getName())) {
+          return true;
+        }
+      }
+    }
+    return false;
   }
 
   public static DatasetIdentifier toDatasetIdentifier(Dataset dataset) {
@@ -44,30 +49,29 @@ public class DatasetUtils {
           .forEach(
               s -> {
                 identifier.withSymlink(
-                    s.getName(), s.getNamespace(), SymlinkType.valueOf(s.getType()));
+                    s.getName(),
+                    s.getNamespace(),
+                    SymlinkType.valueOf(s.getType().toUpperCase(Locale.ROOT)));
               });
     }
 
     return identifier;
   }
 
-  private static Set<DatasetName> namesFrom(DatasetIdentifier dataset) {
-    Set<DatasetName> names = new HashSet<>();
-    names.add(new DatasetName(dataset.getNamespace(), dataset.getName()));
-
-    if (dataset.getSymlinks() != null) {
-      for (Symlink identifier : dataset.getSymlinks()) {
-        names.add(new DatasetName(identifier.getNamespace(), identifier.getName()));
+  private static boolean hasName(DatasetIdentifier dataset, String namespace, String name) {
+    if (Objects.equals(dataset.getNamespace(), namespace)
+        && Objects.equals(dataset.getName(), name)) {
+      return true;
+    }
+    List<Symlink> symlinks = dataset.getSymlinks();
+    if (symlinks != null) {
+      for (Symlink symlink : symlinks) {
+        if (Objects.equals(symlink.getNamespace(), namespace)
+            && Objects.equals(symlink.getName(), name)) {
+          return true;
+        }
       }
     }
-
-    return names;
-  }
-
-  @EqualsAndHashCode
-  @AllArgsConstructor
-  private static class DatasetName {
-    String namespace;
-    String name;
+    return false;
   }
 }
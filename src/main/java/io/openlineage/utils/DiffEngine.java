@@ -0,0 +1,300 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.DatasetFacet;
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
+import io.openlineage.client.OpenLineage.JobFacet;
+import io.openlineage.client.OpenLineage.OutputDatasetFacet;
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import io.openlineage.client.OpenLineage.RunFacet;
+import io.openlineage.utils.ConfigTable.FacetRule;
+import io.openlineage.utils.FacetComparator.Mismatch;
+import io.openlineage.utils.FacetDecoder.Kind;
+import io.openlineage.utils.RunAligner.ActionRun;
+import io.openlineage.utils.RunAligner.RunAlignment;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the checks of {@code SparkActionsCase}, {@code JobDiffCase}, {@code RunDiffCase}, {@code
+ * InputDatasetsCase} and {@code OutputDatasetsCase} on a context, without JUnit, and collects the
+ * results into a {@link DiffReport}. The checks themselves are the static methods returning the
+ * failure of a check, empty when it passes, which the cases assert on.
+ */
+public class DiffEngine {
+
+  private final Context context;
+  private final ConfigTable configTable;
+
+  public DiffEngine(Context context) {
+    this.context = context;
+    this.configTable = context.getConfigTable();
+  }
+
+  /** Runs all the checks. */
+  public DiffReport run() {
+    DiffReport report = new DiffReport();
+    checkSparkActions(report);
+    checkRunAlignment(report);
+    List<SparkActionId> sparkActionIds = context.getSparkActionsIds();
+    if (sparkActionIds.isEmpty()) {
+      report.fail("Verify spark actions", "all events", "No spark actions to compare");
+    }
+    sparkActionIds.forEach(sparkActionId -> diff(sparkActionId, report));
+    return report;
+  }
+
+  /** Runs the checks of a single Spark action. */
+  public void diff(SparkActionId sparkActionId, DiffReport report) {
+    String subject = "Job " + sparkActionId.getJobName() + ", prev run " + sparkActionId.prevRunId;
+    checkJob(new JobHelper(context, sparkActionId), subject, report);
+    checkRun(new RunHelper(context, sparkActionId), subject, report);
+    checkInputs(new InputDatasetHelper(context, sparkActionId), subject, report);
+    checkOutputs(new OutputDatasetHelper(context, sparkActionId), subject, report);
+  }
+
+  private void checkSparkActions(DiffReport report) {
+    record(
+        report,
+        "Verify spark actions",
+        "all events",
+        sparkActionsFailure(context.getPrevRecords(), context.getNextRecords()));
+  }
+
+  private void checkRunAlignment(DiffReport report) {
+    checkRunAlignment(context.getRunAlignment(), report);
+  }
+
+  static void checkRunAlignment(RunAlignment alignment, DiffReport report) {
+    if (alignment.isComplete()) {
+      report.pass("Verify spark action runs", "all events");
+    }
+    for (ActionRun run : alignment.getUnmatchedPrev()) {
+      report.fail(
+          "Verify spark action runs",
+          "Job " + run.getJobName() + ", prev run " + run.getRunId(),
+          "No matching run in next events");
+    }
+    for (ActionRun run : alignment.getUnmatchedNext()) {
+      report.fail(
+          "Verify spark action runs",
+          "Job " + run.getJobName() + ", next run " + run.getRunId(),
+          "No matching run in prev events");
+    }
+  }
+
+  /** Job names of the start events, one per Spark action, in the order of the events. */
+  static List<String> startedJobs(List<EventRecord> records) {
+    return records.stream()
+        .filter(e -> EventType.START.equals(e.getEventType()))
+        .map(EventRecord::getJobName)
+        .collect(Collectors.toList());
+  }
+
+  /** Checks that both versions start the same Spark actions, in the same order. */
+  static Optional<String> sparkActionsFailure(
+      List<EventRecord> prevRecords, List<EventRecord> nextRecords) {
+    List<String> prevActions = startedJobs(prevRecords);
+    List<String> nextActions = startedJobs(nextRecords);
+    if (prevActions.equals(nextActions)) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        "Job names of the spark actions differ, prev " + prevActions + ", next " + nextActions);
+  }
+
+  private void checkJob(JobHelper jobHelper, String subject, DiffReport report) {
+    record(
+        report,
+        "Verify job name",
+        subject,
+        singleValueFailure(jobHelper.prevNames(), jobHelper.nextNames()));
+    record(
+        report,
+        "Verify job namespace",
+        subject,
+        singleValueFailure(jobHelper.prevNamespaces(), jobHelper.nextNamespaces()));
+    checkFacets(
+        report,
+        "Verify job facet",
+        subject,
+        jobHelper.prevMergedFacets(),
+        jobHelper.nextMergedFacets(),
+        Kind.JOB,
+        JobFacet::getAdditionalProperties);
+  }
+
+  /** Checks that each version has a single value, and that the values are equal. */
+  static Optional<String> singleValueFailure(List<String> prev, List<String> next) {
+    Set<String> prevValues = new HashSet<>(prev);
+    Set<String> nextValues = new HashSet<>(next);
+    if (prevValues.size() != 1 || nextValues.size() != 1) {
+      return Optional.of(
+          "Expected a single value on each side, prev " + prevValues + ", next " + nextValues);
+    } else if (!prevValues.equals(nextValues)) {
+      return Optional.of("Expected " + prevValues + " but was " + nextValues);
+    }
+    return Optional.empty();
+  }
+
+  private void checkRun(RunHelper runHelper, String subject, DiffReport report) {
+    checkFacets(
+        report,
+        "Verify run facet",
+        subject,
+        runHelper.prevMergedFacets(),
+        runHelper.nextMergedFacets(),
+        Kind.RUN,
+        RunFacet::getAdditionalProperties);
+  }
+
+  private void checkInputs(InputDatasetHelper helper, String subject, DiffReport report) {
+    DatasetReconciliation<InputDatasetFacet> reconciliation = helper.getReconciliation();
+    record(
+        report, "Verify input dataset names and namespaces", subject, namesFailure(reconciliation));
+    for (Integer datasetClass : reconciliation.getPrevClasses()) {
+      List<DatasetRecord<InputDatasetFacet>> prev = reconciliation.getPrev(datasetClass);
+      List<DatasetRecord<InputDatasetFacet>> next = reconciliation.getNext(datasetClass);
+      String datasetSubject = subject + ", input " + name(prev.get(0));
+      checkFacets(
+          report,
+          "Verify dataset facet",
+          datasetSubject,
+          helper.mergedDatasetFacets(prev),
+          helper.mergedDatasetFacets(next),
+          Kind.DATASET,
+          DatasetFacet::getAdditionalProperties);
+      checkFacets(
+          report,
+          "Verify input dataset facet",
+          datasetSubject,
+          helper.mergedInputDatasetFacets(prev),
+          helper.mergedInputDatasetFacets(next),
+          Kind.INPUT_DATASET,
+          InputDatasetFacet::getAdditionalProperties);
+    }
+  }
+
+  private void checkOutputs(OutputDatasetHelper helper, String subject, DiffReport report) {
+    DatasetReconciliation<OutputDatasetFacet> reconciliation = helper.getReconciliation();
+    record(
+        report,
+        "Verify output dataset names and namespaces",
+        subject,
+        namesFailure(reconciliation));
+    for (Integer datasetClass : reconciliation.getPrevClasses()) {
+      List<DatasetRecord<OutputDatasetFacet>> prev = reconciliation.getPrev(datasetClass);
+      List<DatasetRecord<OutputDatasetFacet>> next = reconciliation.getNext(datasetClass);
+      String datasetSubject = subject + ", output " + name(prev.get(0));
+      checkFacets(
+          report,
+          "Verify dataset facet",
+          datasetSubject,
+          helper.mergedDatasetFacets(prev),
+          helper.mergedDatasetFacets(next),
+          Kind.DATASET,
+          DatasetFacet::getAdditionalProperties);
+      checkFacets(
+          report,
+          "Verify output dataset facet",
+          datasetSubject,
+          helper.mergedOutputDatasetFacets(prev),
+          helper.mergedOutputDatasetFacets(next),
+          Kind.OUTPUT_DATASET,
+          OutputDatasetFacet::getAdditionalProperties);
+    }
+  }
+
+  /** Checks that each dataset of either version has a matching dataset in the other one. */
+  static Optional<String> namesFailure(DatasetReconciliation<?> reconciliation) {
+    List<String> missing = names(reconciliation.getMissingDatasets());
+    List<String> extra = names(reconciliation.getExtraDatasets());
+    if (missing.isEmpty() && extra.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        "Datasets missing in next events " + missing + ", missing in prev events " + extra);
+  }
+
+  private static List<String> names(List<? extends DatasetRecord<?>> datasets) {
+    return datasets.stream().map(DiffEngine::name).collect(Collectors.toList());
+  }
+
+  private static String name(DatasetRecord<?> dataset) {
+    return dataset.getNamespace() + ":" + dataset.getName();
+  }
+
+  /**
+   * Checks that each facet from the previous version which is not disabled is present in the next
+   * version with all the properties of the previous version, except the ignored ones, see {@link
+   * FacetComparator}.
+   */
+  private <F> void checkFacets(
+      DiffReport report,
+      String check,
+      String subject,
+      Map<String, F> prevFacets,
+      Map<String, F> nextFacets,
+      Kind kind,
+      Function<F, Map<String, Object>> properties) {
+    for (Entry<String, F> prevFacet : prevFacets.entrySet()) {
+      String facetName = prevFacet.getKey();
+      FacetRule rule = configTable.get(kind, facetName);
+      if (rule.isDisabled()) {
+        continue;
+      }
+      record(
+          report,
+          check + " " + facetName,
+          subject,
+          facetFailure(
+              facetName,
+              prevFacet.getValue(),
+              nextFacets.get(facetName),
+              rule.getIgnoredPaths(),
+              properties));
+    }
+  }
+
+  /**
+   * Checks that the next facet is present and has all the properties of the previous facet, except
+   * the ignored ones.
+   */
+  static <F> Optional<String> facetFailure(
+      String facetName,
+      F prevFacet,
+      F nextFacet,
+      IgnoredPaths ignoredPaths,
+      Function<F, Map<String, Object>> properties) {
+    if (nextFacet == null) {
+      return Optional.of("Next facets should contain facet: " + facetName);
+    }
+    List<Mismatch> mismatches =
+        FacetComparator.compare(
+            properties.apply(prevFacet), properties.apply(nextFacet), ignoredPaths);
+    if (mismatches.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        mismatches.stream().map(Mismatch::toString).collect(Collectors.joining(", ")));
+  }
+
+  private static void record(
+      DiffReport report, String check, String subject, Optional<String> failure) {
+    if (failure.isPresent()) {
+      report.fail(check, subject, failure.get());
+    } else {
+      report.pass(check, subject);
+    }
+  }
+}
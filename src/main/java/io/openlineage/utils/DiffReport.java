@@ -0,0 +1,64 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.Value;
+
+/** Results of all the checks of a diff, in the order they were run. */
+public class DiffReport {
+
+  /** Result of a single check of a single subject, like a facet of a run. */
+  @Value
+  public static class Result {
+    String check;
+    String subject;
+    boolean passed;
+    String message;
+  }
+
+  private final List<Result> results = new ArrayList<>();
+
+  public synchronized void pass(String check, String subject) {
+    results.add(new Result(check, subject, true, null));
+  }
+
+  public synchronized void fail(String check, String subject, String message) {
+    results.add(new Result(check, subject, false, message));
+  }
+
+  public synchronized List<Result> getResults() {
+    return Collections.unmodifiableList(new ArrayList<>(results));
+  }
+
+  public synchronized long getFailures() {
+    return results.stream().filter(r -> !r.passed).count();
+  }
+
+  public boolean isSuccessful() {
+    return getFailures() == 0;
+  }
+
+  /** Prints the failed checks, or all of them when verbose, followed by a summary. */
+  public synchronized void print(PrintStream out, boolean verbose) {
+    printResults(out, verbose, "");
+    out.printf("%d checks, %d failed%n", results.size(), getFailures());
+  }
+
+  /** Prints the failed checks, or all of them when verbose, each line starting with the indent. */
+  public synchronized void printResults(PrintStream out, boolean verbose, String indent) {
+    for (Result result : results) {
+      if (!result.passed) {
+        out.printf("%sFAILED %s [%s]: %s%n", indent, result.check, result.subject, result.message);
+      } else if (verbose) {
+        out.printf("%sPASSED %s [%s]%n", indent, result.check, result.subject);
+      }
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import io.openlineage.client.OpenLineage.ParentRunFacet;
+import io.openlineage.client.OpenLineage.RunEvent;
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import java.io.IOException;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * The few fields of an event needed to find and align runs: run id, event type, job and the parent
+ * run. Any of them may be null when missing from the event.
+ */
+@Value
+@Builder
+public class EventEnvelope {
+  UUID runId;
+  EventType eventType;
+  String jobNamespace;
+  String jobName;
+  UUID parentRunId;
+  String parentJobNamespace;
+  String parentJobName;
+
+  /** Checks if the event is of the job, or of a run whose parent is the job. */
+  public boolean isOfJob(String name) {
+    return name.equals(jobName) || name.equals(parentJobName);
+  }
+
+  static EventEnvelope of(RunEvent event) {
+    EventEnvelopeBuilder builder = builder().eventType(event.getEventType());
+    if (event.getJob() != null) {
+      builder.jobNamespace(event.getJob().getNamespace()).jobName(event.getJob().getName());
+    }
+    if (event.getRun() != null) {
+      builder.runId(event.getRun().getRunId());
+      ParentRunFacet parent =
+          event.getRun().getFacets() == null ? null : event.getRun().getFacets().getParent();
+      if (parent != null && parent.getRun() != null) {
+        builder.parentRunId(parent.getRun().getRunId());
+      }
+      if (parent != null && parent.getJob() != null) {
+        builder
+            .parentJobNamespace(parent.getJob().getNamespace())
+            .parentJobName(parent.getJob().getName());
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Reads the envelope of the event the parser is positioned at and leaves the parser at the end of
+   * the event. All the other fields are skipped at the token level, without being decoded.
+   */
+  static EventEnvelope read(JsonParser parser) throws IOException {
+    if (parser.currentToken() == null) {
+      throw new JsonEOFException(parser, null, "Unexpected end of input, expected an event");
+    }
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Expected an event object");
+    }
+    EventEnvelopeBuilder builder = builder();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("eventType".equals(field) && value == JsonToken.VALUE_STRING) {
+        builder.eventType(EventType.valueOf(parser.getText()));
+      } else if ("run".equals(field) && value == JsonToken.START_OBJECT) {
+        readRun(parser, builder);
+      } else if ("job".equals(field) && value == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String jobField = parser.getCurrentName();
+          parser.nextToken();
+          if ("namespace".equals(jobField)) {
+            builder.jobNamespace(text(parser));
+          } else if ("name".equals(jobField)) {
+            builder.jobName(text(parser));
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return builder.build();
+  }
+
+  private static void readRun(JsonParser parser, EventEnvelopeBuilder builder) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("runId".equals(field)) {
+        builder.runId(uuid(parser));
+      } else if ("facets".equals(field) && value == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String facet = parser.getCurrentName();
+          if (parser.nextToken() == JsonToken.START_OBJECT && "parent".equals(facet)) {
+            readParent(parser, builder);
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private static void readParent(JsonParser parser, EventEnvelopeBuilder builder)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("run".equals(field) && value == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          boolean runId = "runId".equals(parser.getCurrentName());
+          parser.nextToken();
+          if (runId) {
+            builder.parentRunId(uuid(parser));
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else if ("job".equals(field) && value == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          String jobField = parser.getCurrentName();
+          parser.nextToken();
+          if ("namespace".equals(jobField)) {
+            builder.parentJobNamespace(text(parser));
+          } else if ("name".equals(jobField)) {
+            builder.parentJobName(text(parser));
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private static UUID uuid(JsonParser parser) throws IOException {
+    String value = text(parser);
+    return value == null ? null : UUID.fromString(value);
+  }
+
+  private static String text(JsonParser parser) throws IOException {
+    if (parser.currentToken().isStructStart()) {
+      parser.skipChildren();
+      return null;
+    }
+    return parser.getValueAsString();
+  }
+}
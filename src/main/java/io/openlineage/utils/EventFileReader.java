@@ -0,0 +1,37 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Reads OpenLineage events from a file in a single pass with {@link MappedEventScanner}, which
+ * handles JSON files as well as logs. Unless given explicitly, the format is detected with {@link
+ * EventFormatDetector}. To load large files on multiple cores, use {@link ParallelEventLoader}.
+ */
+public class EventFileReader {
+
+  private final Path path;
+  private final EventFormat format;
+
+  public EventFileReader(Path path) throws IOException {
+    this(path, EventFormatDetector.detect(path));
+  }
+
+  public EventFileReader(Path path, EventFormat format) {
+    this.path = path;
+    this.format = format;
+  }
+
+  /** Reads the whole file and passes each event to the consumer in the order of occurrence. */
+  public void read(Consumer<EventRecord> consumer) throws IOException {
+    try (MappedEventScanner scanner = new MappedEventScanner(path, format)) {
+      scanner.read(consumer);
+    }
+  }
+}
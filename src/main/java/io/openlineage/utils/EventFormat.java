@@ -0,0 +1,73 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Supported formats of files with OpenLineage events. Log formats are described by the timestamp
+ * each log line starts with, where {@code d} stands for a digit and {@code ?} for either {@code T}
+ * or a space.
+ */
+public enum EventFormat {
+  /** JSON events written by {@code FileTransport}: an event per line or concatenated values. */
+  JSON(null),
+  /** Spark log4j logs, like {@code 25/03/14 10:02:19 INFO ConsoleTransport: {...}}. */
+  SPARK_LOG("dd/dd/dd dd:dd:dd"),
+  /** Logs with ISO-8601 timestamps, like {@code 2025-03-14 10:02:19,123 INFO ...}. */
+  ISO_LOG("dddd-dd-dd?dd:dd:dd"),
+  /** Logs with bracketed ISO-8601 timestamps, like {@code [2025-03-14T10:02:19.123Z] INFO ...}. */
+  BRACKETED_LOG("[dddd-dd-dd?dd:dd:dd");
+
+  private final byte[] timestamp;
+
+  EventFormat(String timestamp) {
+    this.timestamp = timestamp == null ? null : timestamp.getBytes();
+  }
+
+  public boolean isLog() {
+    return timestamp != null;
+  }
+
+  /** Checks if the line starts with a timestamp of this log format. */
+  public boolean isLogLine(byte[] bytes, int offset, int length) {
+    if (timestamp == null || length < timestamp.length) {
+      return false;
+    }
+    for (int i = 0; i < timestamp.length; i++) {
+      byte b = bytes[offset + i];
+      switch (timestamp[i]) {
+        case 'd':
+          if (b < '0' || b > '9') {
+            return false;
+          }
+          break;
+        case '?':
+          if (b != 'T' && b != ' ') {
+            return false;
+          }
+          break;
+        default:
+          if (b != timestamp[i]) {
+            return false;
+          }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Parses the format name passed with {@code --format}. Empty value or {@code auto} means the
+   * format should be detected.
+   */
+  public static Optional<EventFormat> fromName(String name) {
+    if (name == null || name.isBlank() || "auto".equalsIgnoreCase(name)) {
+      return Optional.empty();
+    }
+    return Optional.of(valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT)));
+  }
+}
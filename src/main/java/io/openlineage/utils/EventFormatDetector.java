@@ -0,0 +1,78 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detects the format of a file with OpenLineage events from a sample of its first bytes, so the
+ * detection cost does not depend on the file size.
+ */
+@Slf4j
+public class EventFormatDetector {
+
+  static final int SAMPLE_SIZE = 8 * 1024;
+
+  public static EventFormat detect(Path path) throws IOException {
+    ByteBuffer sample = ByteBuffer.allocate(SAMPLE_SIZE);
+    boolean wholeFile;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      while (sample.hasRemaining() && channel.read(sample) != -1) {}
+      wholeFile = channel.position() >= channel.size();
+    }
+    EventFormat format = detect(sample.array(), sample.position(), wholeFile);
+    log.info("Detected {} format of {}", format, path);
+    return format;
+  }
+
+  /**
+   * Detects the format from a sample. JSON files start with a JSON value. For logs, the format
+   * which timestamps most of the sampled lines is chosen. The last line of the sample is skipped
+   * unless the sample covers the whole file, as it may be cut in the middle.
+   */
+  static EventFormat detect(byte[] sample, int length, boolean wholeFile) {
+    int first = 0;
+    while (first < length && Character.isWhitespace(sample[first])) {
+      first++;
+    }
+    if (first == length || sample[first] == '{') {
+      return EventFormat.JSON;
+    }
+
+    EventFormat[] formats = EventFormat.values();
+    int[] matches = new int[formats.length];
+    int lineStart = 0;
+    for (int i = 0; i <= length; i++) {
+      boolean lineEnd = i == length ? wholeFile : sample[i] == '\n';
+      if (lineEnd) {
+        for (int f = 0; f < formats.length; f++) {
+          if (formats[f].isLogLine(sample, lineStart, i - lineStart)) {
+            matches[f]++;
+          }
+        }
+        lineStart = i + 1;
+      }
+    }
+
+    EventFormat detected = EventFormat.SPARK_LOG;
+    int best = 0;
+    for (int f = 0; f < formats.length; f++) {
+      if (matches[f] > best) {
+        best = matches[f];
+        detected = formats[f];
+      }
+    }
+    if (best == 0) {
+      log.warn("No known log timestamp found in the sample, assuming {}", detected);
+    }
+    return detected;
+  }
+}
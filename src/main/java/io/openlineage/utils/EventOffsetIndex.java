@@ -0,0 +1,281 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sidecar index of the events of a log, kept beside it as {@code <file>.olidx}, so that a log which
+ * is diffed again does not have to be scanned for the events. For each event the index holds the
+ * offset and the length of its JSON in the log together with its envelope, hence the events of a
+ * single job can be read without touching the rest of the log.
+ *
+ * <p>The index is memory-mapped. It consists of a header, entries of a fixed size in the order of
+ * the log and a pool of the strings of the envelopes, each stored once. The header records the size
+ * and the modification time of the log, as well as its format. An index of a log whose size or
+ * modification time changed since is stale and ignored, as is a damaged index: the count of its
+ * entries, the type of each event and each offset and length are checked against the sizes of the
+ * index and of the log before they are used.
+ */
+@Slf4j
+public final class EventOffsetIndex {
+
+  static final String EXTENSION = ".olidx";
+
+  /** Logs smaller than this are scanned fast enough not to write an index for them. */
+  static final long MIN_SOURCE_SIZE = ParallelEventLoader.MIN_CHUNK_SIZE;
+
+  private static final long MAGIC = 0x4f4c494458303031L; // OLIDX001
+  private static final int HEADER_SIZE = 32;
+  private static final int ENTRY_SIZE = 64;
+  private static final int HAS_RUN_ID = 1;
+  private static final int HAS_PARENT_RUN_ID = 2;
+  private static final EventType[] EVENT_TYPES = EventType.values();
+
+  private EventOffsetIndex() {}
+
+  public static Path indexPath(Path source) {
+    return source.resolveSibling(source.getFileName() + EXTENSION);
+  }
+
+  /**
+   * Writes the index of the records read from the log, each starting at the given offset of the
+   * log, see {@link MappedEventScanner#scan}. The index is written to a temporary file first and
+   * then moved in place.
+   */
+  public static Path write(
+      Path source, EventFormat format, List<EventRecord> records, long[] starts)
+      throws IOException {
+    int jsonShift = format.isLog() ? MappedEventScanner.CONSOLE_TRANSPORT_LOG.length() : 0;
+    ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    Map<String, Integer> pooled = new HashMap<>();
+    Path index = indexPath(source);
+    Path temporary =
+        index.resolveSibling(
+            "." + index.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+        out.writeLong(MAGIC);
+        out.writeLong(Files.size(source));
+        out.writeLong(Files.getLastModifiedTime(source).toMillis());
+        out.writeByte(format.ordinal());
+        out.writeByte(0);
+        out.writeShort(0);
+        out.writeInt(records.size());
+        for (int i = 0; i < records.size(); i++) {
+          EventRecord record = records.get(i);
+          EventEnvelope envelope = record.getEnvelope();
+          out.writeLong(starts[i] + jsonShift);
+          out.writeInt(((RawEventRecord) record).getJsonLength());
+          out.writeByte(envelope.getEventType() == null ? -1 : envelope.getEventType().ordinal());
+          out.writeByte(
+              (envelope.getRunId() == null ? 0 : HAS_RUN_ID)
+                  | (envelope.getParentRunId() == null ? 0 : HAS_PARENT_RUN_ID));
+          out.writeShort(0);
+          writeUuid(out, envelope.getRunId());
+          writeUuid(out, envelope.getParentRunId());
+          out.writeInt(pool(pool, pooled, envelope.getJobNamespace()));
+          out.writeInt(pool(pool, pooled, envelope.getJobName()));
+          out.writeInt(pool(pool, pooled, envelope.getParentJobNamespace()));
+          out.writeInt(pool(pool, pooled, envelope.getParentJobName()));
+        }
+        pool.writeTo(out);
+      }
+      Files.move(temporary, index, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    log.info("Wrote index of {} events of {} to {}", records.size(), source, index);
+    return index;
+  }
+
+  /**
+   * Reads the records matching the filter with the index of the log, or returns empty when there is
+   * no index or it is stale or was written for a different format than the one given.
+   */
+  public static Optional<List<EventRecord>> read(
+      Path source, Optional<EventFormat> format, Predicate<EventEnvelope> filter)
+      throws IOException {
+    return read(source, format, filter, EventStore.HEAP);
+  }
+
+  /** Reads the records matching the filter like {@link #read}, keeping them in the store. */
+  static Optional<List<EventRecord>> read(
+      Path source, Optional<EventFormat> format, Predicate<EventEnvelope> filter, EventStore store)
+      throws IOException {
+    Path index = indexPath(source);
+    if (!Files.isRegularFile(index)) {
+      return Optional.empty();
+    }
+    try (FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.READ);
+        FileChannel sourceChannel = FileChannel.open(source, StandardOpenOption.READ)) {
+      if (indexChannel.size() > Integer.MAX_VALUE) {
+        log.warn("Ignoring {}, it is too large to be mapped", index);
+        return Optional.empty();
+      }
+      MappedByteBuffer buffer = indexChannel.map(MapMode.READ_ONLY, 0, indexChannel.size());
+      if (!isValid(buffer, source, format, index)) {
+        return Optional.empty();
+      }
+      try {
+        return Optional.of(readRecords(buffer, sourceChannel, source, filter, store));
+      } catch (IOException | RuntimeException e) {
+        log.warn("Ignoring {}, it is damaged", index, e);
+        return Optional.empty();
+      }
+    }
+  }
+
+  private static List<EventRecord> readRecords(
+      ByteBuffer buffer,
+      FileChannel sourceChannel,
+      Path source,
+      Predicate<EventEnvelope> filter,
+      EventStore store)
+      throws IOException {
+    int count = buffer.getInt(28);
+    if (count < 0 || count > (buffer.capacity() - HEADER_SIZE) / ENTRY_SIZE) {
+      throw new IOException("Invalid count of entries " + count);
+    }
+    int pool = HEADER_SIZE + count * ENTRY_SIZE;
+    long sourceSize = sourceChannel.size();
+    Map<Integer, String> strings = new HashMap<>();
+    List<EventRecord> records = new ArrayList<>();
+    for (int entry = HEADER_SIZE; entry < pool; entry += ENTRY_SIZE) {
+      EventEnvelope envelope = readEnvelope(buffer, entry, pool, strings);
+      if (filter.test(envelope)) {
+        long offset = buffer.getLong(entry);
+        int length = buffer.getInt(entry + 8);
+        if (offset < 0 || length < 0 || offset > sourceSize - length) {
+          throw new IOException("Invalid event at " + offset + " of length " + length);
+        }
+        byte[] json = new byte[length];
+        readFully(sourceChannel, ByteBuffer.wrap(json), offset);
+        records.add(store.store(envelope, json));
+      }
+    }
+    log.info("Loaded {} of {} events of {} with its index", records.size(), count, source);
+    return records;
+  }
+
+  private static boolean isValid(
+      ByteBuffer buffer, Path source, Optional<EventFormat> format, Path index) throws IOException {
+    if (buffer.capacity() < HEADER_SIZE || buffer.getLong(0) != MAGIC) {
+      log.warn("Ignoring {}, it is not an index of events", index);
+      return false;
+    }
+    int indexFormat = buffer.get(24);
+    if (format.isPresent() && format.get().ordinal() != indexFormat) {
+      log.warn("Ignoring {}, it was written for a different format", index);
+      return false;
+    }
+    if (buffer.getLong(8) != Files.size(source)
+        || buffer.getLong(16) != Files.getLastModifiedTime(source).toMillis()) {
+      log.warn("Ignoring {}, {} has changed since it was written", index, source);
+      return false;
+    }
+    return true;
+  }
+
+  private static EventEnvelope readEnvelope(
+      ByteBuffer buffer, int entry, int pool, Map<Integer, String> strings) throws IOException {
+    int eventType = buffer.get(entry + 12);
+    if (eventType < -1 || eventType >= EVENT_TYPES.length) {
+      throw new IOException("Invalid event type " + eventType);
+    }
+    int flags = buffer.get(entry + 13);
+    return EventEnvelope.builder()
+        .eventType(eventType < 0 ? null : EVENT_TYPES[eventType])
+        .runId((flags & HAS_RUN_ID) == 0 ? null : readUuid(buffer, entry + 16))
+        .parentRunId((flags & HAS_PARENT_RUN_ID) == 0 ? null : readUuid(buffer, entry + 32))
+        .jobNamespace(readString(buffer, pool, buffer.getInt(entry + 48), strings))
+        .jobName(readString(buffer, pool, buffer.getInt(entry + 52), strings))
+        .parentJobNamespace(readString(buffer, pool, buffer.getInt(entry + 56), strings))
+        .parentJobName(readString(buffer, pool, buffer.getInt(entry + 60), strings))
+        .build();
+  }
+
+  private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+    out.writeLong(uuid == null ? 0 : uuid.getMostSignificantBits());
+    out.writeLong(uuid == null ? 0 : uuid.getLeastSignificantBits());
+  }
+
+  private static UUID readUuid(ByteBuffer buffer, int offset) {
+    return new UUID(buffer.getLong(offset), buffer.getLong(offset + 8));
+  }
+
+  /** Adds the string to the pool unless already there and returns its offset, -1 for null. */
+  private static int pool(ByteArrayOutputStream pool, Map<String, Integer> pooled, String value)
+      throws IOException {
+    if (value == null) {
+      return -1;
+    }
+    Integer offset = pooled.get(value);
+    if (offset == null) {
+      offset = pool.size();
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      new DataOutputStream(pool).writeInt(bytes.length);
+      pool.write(bytes);
+      pooled.put(value, offset);
+    }
+    return offset;
+  }
+
+  private static String readString(
+      ByteBuffer buffer, int pool, int offset, Map<Integer, String> strings) throws IOException {
+    if (offset == -1) {
+      return null;
+    }
+    String value = strings.get(offset);
+    if (value == null) {
+      long start = (long) pool + offset + Integer.BYTES;
+      if (offset < 0 || start > buffer.capacity()) {
+        throw new IOException("Invalid string at " + offset);
+      }
+      int length = buffer.getInt(pool + offset);
+      if (length < 0 || length > buffer.capacity() - start) {
+        throw new IOException("Invalid string at " + offset + " of length " + length);
+      }
+      byte[] bytes = new byte[length];
+      buffer.duplicate().position((int) start).get(bytes);
+      value = new String(bytes, StandardCharsets.UTF_8);
+      strings.put(offset, value);
+    }
+    return value;
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new EOFException("Log is shorter than its index");
+      }
+    }
+  }
+}
@@ -0,0 +1,95 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.InputDataset;
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
+import io.openlineage.client.OpenLineage.JobFacet;
+import io.openlineage.client.OpenLineage.OutputDataset;
+import io.openlineage.client.OpenLineage.OutputDatasetFacet;
+import io.openlineage.client.OpenLineage.RunEvent;
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import io.openlineage.client.OpenLineage.RunFacet;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Getter;
+
+/**
+ * An OpenLineage event with only its {@link EventEnvelope} decoded up front. Facets and datasets
+ * are decoded on demand, each time they are requested, so events which are never compared are never
+ * deserialized. Callers touching the same part of an event repeatedly should keep the result.
+ */
+public abstract class EventRecord {
+
+  @Getter private final EventEnvelope envelope;
+
+  protected EventRecord(EventEnvelope envelope) {
+    this.envelope = envelope;
+  }
+
+  /** Wraps an already deserialized event. */
+  public static EventRecord of(RunEvent event) {
+    return new ParsedEventRecord(event);
+  }
+
+  /** Returns a view of the events as records, reflecting any later changes to the list. */
+  public static List<EventRecord> asRecords(List<RunEvent> events) {
+    return new AbstractList<EventRecord>() {
+      @Override
+      public EventRecord get(int index) {
+        return of(events.get(index));
+      }
+
+      @Override
+      public int size() {
+        return events.size();
+      }
+    };
+  }
+
+  public UUID getRunId() {
+    return envelope.getRunId();
+  }
+
+  public EventType getEventType() {
+    return envelope.getEventType();
+  }
+
+  public String getJobNamespace() {
+    return envelope.getJobNamespace();
+  }
+
+  public String getJobName() {
+    return envelope.getJobName();
+  }
+
+  public UUID getParentRunId() {
+    return envelope.getParentRunId();
+  }
+
+  /** Decodes the run facets into a new mutable map, empty when the event has none. */
+  public abstract Map<String, RunFacet> getRunFacets();
+
+  /** Decodes the job facets into a new mutable map, empty when the event has none. */
+  public abstract Map<String, JobFacet> getJobFacets();
+
+  /** Decodes the inputs, returns an empty list when the event has none. */
+  public abstract List<InputDataset> getInputs();
+
+  /** Decodes the outputs, returns an empty list when the event has none. */
+  public abstract List<OutputDataset> getOutputs();
+
+  /** Decodes the inputs with generic facets, returns an empty list when the event has none. */
+  public abstract List<DatasetRecord<InputDatasetFacet>> getInputDatasets();
+
+  /** Decodes the outputs with generic facets, returns an empty list when the event has none. */
+  public abstract List<DatasetRecord<OutputDatasetFacet>> getOutputDatasets();
+
+  /** Decodes the whole event. */
+  public abstract RunEvent toRunEvent();
+}
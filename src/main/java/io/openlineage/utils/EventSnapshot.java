@@ -0,0 +1,283 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Binary snapshot of the events loaded from a file, kept beside it as {@code <file>.olsnap}, so
+ * that a baseline which does not change between diffs is parsed only once. The snapshot holds the
+ * envelope of each event together with its raw JSON bytes, hence loading it only copies byte ranges
+ * and the records decode lazily exactly as when read from the file itself.
+ *
+ * <p>The header records the size and the CRC32C checksum of the source file, as well as the format
+ * it was parsed with. A snapshot of a file whose size or checksum changed since is stale and
+ * ignored, as is a truncated or otherwise damaged snapshot. Each length read from a snapshot is
+ * checked against its size before anything is allocated for it.
+ */
+@Slf4j
+public final class EventSnapshot {
+
+  static final String EXTENSION = ".olsnap";
+
+  private static final long MAGIC = 0x4f4c534e41503031L; // OLSNAP01
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final EventType[] EVENT_TYPES = EventType.values();
+
+  /** Smallest size of a record, an envelope without any run id or string and empty JSON. */
+  private static final int MIN_RECORD_SIZE = 23;
+
+  private EventSnapshot() {}
+
+  public static Path snapshotPath(Path source) {
+    return source.resolveSibling(source.getFileName() + EXTENSION);
+  }
+
+  /**
+   * Writes the snapshot of the records loaded from the file with the format, or with the detected
+   * format when empty. The snapshot is written to a temporary file first and then moved in place.
+   */
+  public static Path write(Path source, Optional<EventFormat> format, List<EventRecord> records)
+      throws IOException {
+    Path snapshot = snapshotPath(source);
+    Path temporary =
+        snapshot.resolveSibling(
+            "." + snapshot.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(
+              new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE))) {
+        out.writeLong(MAGIC);
+        out.writeLong(Files.size(source));
+        out.writeInt(checksum(source));
+        out.writeByte(format.map(Enum::ordinal).orElse(-1));
+        out.writeInt(records.size());
+        for (EventRecord record : records) {
+          byte[] json =
+              record instanceof RawEventRecord
+                  ? ((RawEventRecord) record).getJson()
+                  : FacetDecoder.MAPPER.writeValueAsBytes(record.toRunEvent());
+          writeEnvelope(out, record.getEnvelope());
+          out.writeInt(json.length);
+          out.write(json);
+        }
+      }
+      Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    log.info("Wrote snapshot of {} events of {} to {}", records.size(), source, snapshot);
+    return snapshot;
+  }
+
+  /**
+   * Reads all the records from the snapshot of the file, or returns empty when there is no snapshot
+   * or it is stale or was written with a different format than the one given.
+   */
+  public static Optional<List<EventRecord>> read(Path source, Optional<EventFormat> format)
+      throws IOException {
+    return read(source, format, EventStore.HEAP);
+  }
+
+  /** Reads all the records from the snapshot of the file like {@link #read}, into the store. */
+  static Optional<List<EventRecord>> read(
+      Path source, Optional<EventFormat> format, EventStore store) throws IOException {
+    Path snapshot = snapshotPath(source);
+    if (!Files.isRegularFile(snapshot)) {
+      return Optional.empty();
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot), BUFFER_SIZE))) {
+      Integer checksum = readChecksum(in, source, format, snapshot);
+      if (checksum == null) {
+        return Optional.empty();
+      }
+      long limit = Files.size(snapshot);
+      int count = in.readInt();
+      if (count < 0 || count > limit / MIN_RECORD_SIZE) {
+        throw new IOException("Invalid count of events " + count);
+      }
+      // the source is checksummed while the records are read
+      CompletableFuture<Integer> sourceChecksum =
+          CompletableFuture.supplyAsync(() -> uncheckedChecksum(source));
+      List<EventRecord> records = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        records.add(readRecord(in, limit, store));
+      }
+      if (!checksum.equals(join(sourceChecksum))) {
+        log.warn("Ignoring {}, {} has changed since it was written", snapshot, source);
+        return Optional.empty();
+      }
+      log.info("Loaded {} events of {} from its snapshot", count, source);
+      return Optional.of(records);
+    } catch (EOFException e) {
+      log.warn("Ignoring {}, it is truncated", snapshot);
+      return Optional.empty();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Ignoring {}, it is damaged", snapshot, e);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Reads the header of the snapshot and returns the checksum of the source it was written from, or
+   * null when the snapshot is not valid for the source, judging by anything but the checksum.
+   */
+  private static Integer readChecksum(
+      DataInputStream in, Path source, Optional<EventFormat> format, Path snapshot)
+      throws IOException {
+    if (in.readLong() != MAGIC) {
+      log.warn("Ignoring {}, it is not a snapshot of events", snapshot);
+      return null;
+    }
+    long size = in.readLong();
+    int checksum = in.readInt();
+    int snapshotFormat = in.readByte();
+    if (format.isPresent() && format.get().ordinal() != snapshotFormat) {
+      log.warn("Ignoring {}, it was written for a different format", snapshot);
+      return null;
+    }
+    if (size != Files.size(source)) {
+      log.warn("Ignoring {}, {} has changed since it was written", snapshot, source);
+      return null;
+    }
+    return checksum;
+  }
+
+  private static int uncheckedChecksum(Path path) {
+    try {
+      return checksum(path);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T join(CompletableFuture<T> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof UncheckedIOException
+          ? ((UncheckedIOException) e.getCause()).getCause()
+          : new IOException(e.getCause());
+    }
+  }
+
+  /** Computes the CRC32C checksum of the file, which is hardware accelerated on most CPUs. */
+  static int checksum(Path path) throws IOException {
+    CRC32C crc = new CRC32C();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      while (channel.read(buffer) != -1) {
+        buffer.flip();
+        crc.update(buffer);
+        buffer.clear();
+      }
+    }
+    return (int) crc.getValue();
+  }
+
+  private static RawEventRecord readRecord(DataInputStream in, long limit, EventStore store)
+      throws IOException {
+    EventEnvelope envelope = readEnvelope(in, limit);
+    byte[] json = new byte[readLength(in, limit)];
+    in.readFully(json);
+    return store.store(envelope, json);
+  }
+
+  /** Reads a length, which cannot exceed the size of the snapshot it is read from. */
+  private static int readLength(DataInputStream in, long limit) throws IOException {
+    int length = in.readInt();
+    if (length < 0 || length > limit) {
+      throw new IOException("Invalid length " + length);
+    }
+    return length;
+  }
+
+  private static void writeEnvelope(DataOutputStream out, EventEnvelope envelope)
+      throws IOException {
+    writeUuid(out, envelope.getRunId());
+    out.writeByte(envelope.getEventType() == null ? -1 : envelope.getEventType().ordinal());
+    writeString(out, envelope.getJobNamespace());
+    writeString(out, envelope.getJobName());
+    writeUuid(out, envelope.getParentRunId());
+    writeString(out, envelope.getParentJobNamespace());
+    writeString(out, envelope.getParentJobName());
+  }
+
+  private static EventEnvelope readEnvelope(DataInputStream in, long limit) throws IOException {
+    UUID runId = readUuid(in);
+    int eventType = in.readByte();
+    if (eventType < -1 || eventType >= EVENT_TYPES.length) {
+      throw new IOException("Invalid event type " + eventType);
+    }
+    return EventEnvelope.builder()
+        .runId(runId)
+        .eventType(eventType < 0 ? null : EVENT_TYPES[eventType])
+        .jobNamespace(readString(in, limit))
+        .jobName(readString(in, limit))
+        .parentRunId(readUuid(in))
+        .parentJobNamespace(readString(in, limit))
+        .parentJobName(readString(in, limit))
+        .build();
+  }
+
+  private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+    out.writeBoolean(uuid != null);
+    if (uuid != null) {
+      out.writeLong(uuid.getMostSignificantBits());
+      out.writeLong(uuid.getLeastSignificantBits());
+    }
+  }
+
+  private static UUID readUuid(DataInputStream in) throws IOException {
+    return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in, long limit) throws IOException {
+    int length = in.readInt();
+    if (length == -1) {
+      return null;
+    }
+    if (length < 0 || length > limit) {
+      throw new IOException("Invalid length " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,54 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Keeps the raw bytes of the events read from files for their {@link RawEventRecord}s. {@link
+ * #HEAP} keeps them in byte arrays, {@link OffHeapEventStore} outside of the heap. A store is
+ * closed once the file has been read, the records it returned remain readable.
+ */
+interface EventStore extends Closeable {
+
+  EventStore HEAP =
+      new EventStore() {
+        @Override
+        public RawEventRecord store(EventEnvelope envelope, ByteBuffer json) {
+          byte[] bytes = new byte[json.remaining()];
+          json.get(bytes);
+          return new RawEventRecord(envelope, bytes);
+        }
+
+        @Override
+        public RawEventRecord store(EventEnvelope envelope, byte[] json) {
+          return new RawEventRecord(envelope, json);
+        }
+      };
+
+  /**
+   * Copies the remaining bytes of the buffer and returns the record of the event they encode. Safe
+   * to call from multiple threads.
+   */
+  RawEventRecord store(EventEnvelope envelope, ByteBuffer json);
+
+  /** Returns the record of the event encoded in the bytes, which are owned by the store. */
+  default RawEventRecord store(EventEnvelope envelope, byte[] json) {
+    return store(envelope, ByteBuffer.wrap(json));
+  }
+
+  @Override
+  default void close() throws IOException {}
+
+  /** Returns the store for the events of the file, off the heap when the file is large. */
+  static EventStore forSource(Path source) throws IOException {
+    return Files.size(source) >= OffHeapEventStore.MIN_SOURCE_SIZE ? new OffHeapEventStore() : HEAP;
+  }
+}
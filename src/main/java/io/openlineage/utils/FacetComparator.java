@@ -0,0 +1,289 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.utils.IgnoredPaths.State;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import lombok.Value;
+
+/**
+ * Compares the properties of a facet from the previous version with the properties of the same
+ * facet from the next version. The next facet has to contain every property of the previous one,
+ * except the ignored ones, with an equal value. Nested objects and arrays are compared in full, so
+ * below the top level the next facet must neither miss nor add anything.
+ *
+ * <p>The trees are walked iteratively with an explicit stack, hence deeply nested facets do not
+ * overflow the call stack, and without building intermediate maps. Objects and arrays of decoded
+ * facets carry a 128-bit {@link StructuralHash}, so subtrees whose hashes are equal are skipped as
+ * equal without being walked, see there for the bound on collisions, and only the children whose
+ * hashes differ are walked. The walk stops once the requested number of mismatches is found, and
+ * the path of a property is only rendered for a mismatch.
+ */
+public final class FacetComparator {
+
+  /** Number of mismatches reported for a facet by default. */
+  public static final int DEFAULT_LIMIT = 10;
+
+  private static final int MAX_VALUE_LENGTH = 80;
+
+  /** Property of the previous facet which is missing, different or unexpected in the next one. */
+  @Value
+  public static class Mismatch {
+    public enum Kind {
+      MISSING,
+      DIFFERENT,
+      UNEXPECTED
+    }
+
+    Kind kind;
+    String path;
+    Object prev;
+    Object next;
+
+    @Override
+    public String toString() {
+      switch (kind) {
+        case MISSING:
+          return "missing " + path;
+        case UNEXPECTED:
+          return "unexpected " + path + ": " + render(next);
+        default:
+          return "different " + path + ": " + render(prev) + " <> " + render(next);
+      }
+    }
+  }
+
+  private FacetComparator() {}
+
+  /** Returns whether the next properties contain all the not ignored previous ones. */
+  public static boolean contains(
+      Map<String, Object> prev, Map<String, Object> next, IgnoredPaths ignored) {
+    return compare(prev, next, ignored, 1).isEmpty();
+  }
+
+  public static List<Mismatch> compare(
+      Map<String, Object> prev, Map<String, Object> next, IgnoredPaths ignored) {
+    return compare(prev, next, ignored, DEFAULT_LIMIT);
+  }
+
+  /**
+   * Returns up to {@code limit} mismatches between the properties, in the order of the previous
+   * properties. The ignored paths are matched while the properties are walked.
+   */
+  public static List<Mismatch> compare(
+      Map<String, Object> prev, Map<String, Object> next, IgnoredPaths ignored, int limit) {
+    List<Mismatch> mismatches = Collections.emptyList();
+    for (Entry<String, Object> property : prev.entrySet()) {
+      String key = property.getKey();
+      State state = ignored.start().next(key);
+      if (state.isIgnored()) {
+        continue;
+      }
+      Object nextValue = next.get(key);
+      Mismatch mismatch = null;
+      if (nextValue == null && !next.containsKey(key)) {
+        mismatch = new Mismatch(Mismatch.Kind.MISSING, path(null, key), property.getValue(), null);
+      } else if (property.getValue() != nextValue) {
+        mismatch = compareTree(key, state, property.getValue(), nextValue);
+      }
+      if (mismatch != null) {
+        if (mismatches.isEmpty()) {
+          mismatches = new ArrayList<>();
+        }
+        mismatches.add(mismatch);
+        if (mismatches.size() >= limit) {
+          break;
+        }
+      }
+    }
+    return mismatches;
+  }
+
+  /** Node of the walk, an object or an array present on both sides. */
+  private static final class Frame {
+    final Frame parent;
+    final Object key;
+    final State state;
+    final Object prev;
+    final Object next;
+    final Iterator<?> children;
+    int index;
+    boolean skipped;
+
+    Frame(Frame parent, Object key, State state, Object prev, Object next) {
+      this.parent = parent;
+      this.key = key;
+      this.state = state;
+      this.prev = prev;
+      this.next = next;
+      this.children =
+          prev instanceof Map
+              ? ((Map<?, ?>) prev).entrySet().iterator()
+              : ((List<?>) prev).iterator();
+    }
+
+    String path() {
+      Deque<Object> keys = new ArrayDeque<>();
+      for (Frame frame = this; frame != null; frame = frame.parent) {
+        keys.push(frame.key);
+      }
+      StringBuilder path = new StringBuilder();
+      for (Object key : keys) {
+        appendPath(path, key);
+      }
+      return path.toString();
+    }
+  }
+
+  /** Returns the first mismatch of the values of a top level property. */
+  private static Mismatch compareTree(String key, State state, Object prev, Object next) {
+    Boolean equal = equalLeaves(prev, next);
+    if (equal != null) {
+      return equal ? null : new Mismatch(Mismatch.Kind.DIFFERENT, path(null, key), prev, next);
+    }
+    Deque<Frame> stack = new ArrayDeque<>();
+    stack.push(new Frame(null, key, state, prev, next));
+    while (!stack.isEmpty()) {
+      Frame frame = stack.peek();
+      if (!frame.children.hasNext()) {
+        stack.pop();
+        Mismatch extra = extraEntry(frame);
+        if (extra != null) {
+          return extra;
+        }
+        continue;
+      }
+      Object childKey;
+      Object prevChild;
+      Object nextChild;
+      State childState;
+      if (frame.next instanceof Map) {
+        Entry<?, ?> entry = (Entry<?, ?>) frame.children.next();
+        Map<?, ?> nextMap = (Map<?, ?>) frame.next;
+        childKey = entry.getKey();
+        prevChild = entry.getValue();
+        childState = frame.state.next(childKey);
+        if (childState.isIgnored()) {
+          frame.skipped = true;
+          continue;
+        }
+        nextChild = nextMap.get(childKey);
+        if (nextChild == null && !nextMap.containsKey(childKey)) {
+          return new Mismatch(Mismatch.Kind.MISSING, path(frame.path(), childKey), prevChild, null);
+        }
+      } else {
+        childKey = frame.index;
+        prevChild = frame.children.next();
+        nextChild = ((List<?>) frame.next).get(frame.index++);
+        childState = frame.state.next(childKey);
+        if (childState.isIgnored()) {
+          continue;
+        }
+      }
+      if (prevChild == nextChild) {
+        continue;
+      }
+      equal = equalLeaves(prevChild, nextChild);
+      if (equal == null) {
+        stack.push(new Frame(frame, childKey, childState, prevChild, nextChild));
+      } else if (!equal) {
+        return new Mismatch(
+            Mismatch.Kind.DIFFERENT, path(frame.path(), childKey), prevChild, nextChild);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns null when both values are objects, or arrays of the same size, which have to be walked,
+   * otherwise whether they are equal. Hashed values with equal hashes are equal.
+   */
+  private static Boolean equalLeaves(Object prev, Object next) {
+    if (StructuralHash.equalHashes(prev, next)) {
+      return Boolean.TRUE;
+    }
+    if (prev instanceof Map && next instanceof Map) {
+      return null;
+    }
+    if (prev instanceof List && next instanceof List) {
+      return ((List<?>) prev).size() == ((List<?>) next).size() ? null : Boolean.FALSE;
+    }
+    if (prev instanceof Map
+        || prev instanceof List
+        || next instanceof Map
+        || next instanceof List) {
+      return Boolean.FALSE;
+    }
+    return Objects.equals(prev, next);
+  }
+
+  /**
+   * Returns an entry of the next object of a fully walked frame which the previous object does not
+   * have and which is not ignored. As all the previous entries were found in the next object, there
+   * is one only when the next object is larger, unless some previous entries were ignored.
+   */
+  private static Mismatch extraEntry(Frame frame) {
+    if (!(frame.next instanceof Map)
+        || !frame.skipped && ((Map<?, ?>) frame.next).size() <= ((Map<?, ?>) frame.prev).size()) {
+      return null;
+    }
+    Map<?, ?> prevMap = (Map<?, ?>) frame.prev;
+    for (Entry<?, ?> entry : ((Map<?, ?>) frame.next).entrySet()) {
+      if (!prevMap.containsKey(entry.getKey()) && !frame.state.next(entry.getKey()).isIgnored()) {
+        return new Mismatch(
+            Mismatch.Kind.UNEXPECTED, path(frame.path(), entry.getKey()), null, entry.getValue());
+      }
+    }
+    return null;
+  }
+
+  /** Renders the JSON path of a key of the object or array at the parent path. */
+  static String path(String parent, Object key) {
+    StringBuilder path = new StringBuilder(parent == null ? "" : parent);
+    appendPath(path, key);
+    return path.toString();
+  }
+
+  /** Appends a key to a JSON path, {@code a.b[0]['c.d']}. */
+  private static void appendPath(StringBuilder path, Object key) {
+    if (key instanceof Integer) {
+      path.append('[').append(key).append(']');
+      return;
+    }
+    String name = key.toString();
+    boolean plain = !name.isEmpty() && Character.isJavaIdentifierStart(name.charAt(0));
+    for (int i = 1; plain && i < name.length(); i++) {
+      plain = Character.isJavaIdentifierPart(name.charAt(i));
+    }
+    if (plain) {
+      path.append(path.length() == 0 ? "" : ".").append(name);
+    } else {
+      path.append("['").append(name.replace("\\", "\\\\").replace("'", "\\'")).append("']");
+    }
+  }
+
+  /** Renders a value of a mismatch without rendering whole objects and arrays. */
+  private static String render(Object value) {
+    if (value instanceof Map) {
+      return "{" + ((Map<?, ?>) value).size() + " fields}";
+    }
+    if (value instanceof List) {
+      return "[" + ((List<?>) value).size() + " items]";
+    }
+    String rendered = String.valueOf(value);
+    return rendered.length() <= MAX_VALUE_LENGTH
+        ? rendered
+        : rendered.substring(0, MAX_VALUE_LENGTH) + "...";
+  }
+}
@@ -0,0 +1,97 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.openlineage.client.OpenLineage.DatasetFacet;
+import io.openlineage.client.OpenLineage.DatasetFacets;
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
+import io.openlineage.client.OpenLineage.InputDatasetInputFacets;
+import io.openlineage.client.OpenLineage.JobFacet;
+import io.openlineage.client.OpenLineage.JobFacets;
+import io.openlineage.client.OpenLineage.OutputDatasetFacet;
+import io.openlineage.client.OpenLineage.OutputDatasetOutputFacets;
+import io.openlineage.client.OpenLineage.RunFacet;
+import io.openlineage.client.OpenLineage.RunFacets;
+import io.openlineage.client.OpenLineageClientUtils;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decodes facets of all kinds into maps of generic facets, keyed by facet name. A single mapper is
+ * shared by the whole process and the map types are resolved once, so decoding does not construct
+ * mappers or resolve types. Decoding is thread-safe.
+ *
+ * <p>Facets are decoded either straight from a parser positioned at the facets object, or from
+ * facet objects already deserialized as part of an event. The objects and arrays of the properties
+ * of facets are decoded with their {@link StructuralHash}.
+ */
+public final class FacetDecoder {
+
+  static final ObjectMapper MAPPER =
+      OpenLineageClientUtils.newObjectMapper().registerModule(StructuralHash.module());
+
+  /** Kinds of facets with the generic facet class they are decoded into. */
+  public enum Kind {
+    RUN(RunFacet.class),
+    JOB(JobFacet.class),
+    DATASET(DatasetFacet.class),
+    INPUT_DATASET(InputDatasetFacet.class),
+    OUTPUT_DATASET(OutputDatasetFacet.class);
+
+    private final JavaType type;
+    private final ObjectReader reader;
+
+    Kind(Class<?> facetClass) {
+      this.type =
+          MAPPER.getTypeFactory().constructMapType(LinkedHashMap.class, String.class, facetClass);
+      this.reader = MAPPER.readerFor(type);
+    }
+  }
+
+  private FacetDecoder() {}
+
+  public static Map<String, RunFacet> runFacets(RunFacets facets) {
+    return convert(facets, Kind.RUN);
+  }
+
+  public static Map<String, JobFacet> jobFacets(JobFacets facets) {
+    return convert(facets, Kind.JOB);
+  }
+
+  public static Map<String, DatasetFacet> datasetFacets(DatasetFacets facets) {
+    return convert(facets, Kind.DATASET);
+  }
+
+  public static Map<String, InputDatasetFacet> inputDatasetFacets(InputDatasetInputFacets facets) {
+    return convert(facets, Kind.INPUT_DATASET);
+  }
+
+  public static Map<String, OutputDatasetFacet> outputDatasetFacets(
+      OutputDatasetOutputFacets facets) {
+    return convert(facets, Kind.OUTPUT_DATASET);
+  }
+
+  /**
+   * Decodes the facets object the parser is positioned at. The returned map is mutable and owned by
+   * the caller.
+   */
+  public static <T> Map<String, T> read(JsonParser parser, Kind kind) throws IOException {
+    Map<String, T> facets = kind.reader.readValue(parser);
+    return facets == null ? new LinkedHashMap<>() : facets;
+  }
+
+  private static <T> Map<String, T> convert(Object facets, Kind kind) {
+    if (facets == null) {
+      return new LinkedHashMap<>();
+    }
+    return MAPPER.convertValue(facets, kind.type);
+  }
+}
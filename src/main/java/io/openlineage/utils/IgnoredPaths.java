@@ -0,0 +1,284 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Ignored properties of a facet, compiled from rules into a trie which is walked along with the
+ * properties compared by {@link FacetComparator}. A rule is a path of the properties of a facet,
+ * made of segments separated by dots:
+ *
+ * <ul>
+ *   <li>{@code name} matches a property, including the parts of a property with dots in its name,
+ *       so {@code properties.spark.master} matches the {@code spark.master} property of the {@code
+ *       properties} object. A name may be quoted like {@code properties['spark.master']}, then it
+ *       matches only a property with that whole name, never nested properties, and it is never a
+ *       wildcard. The items of arrays are named by their index like {@code fields.0} or {@code
+ *       fields[0]}.
+ *   <li>{@code *} matches any single property or item.
+ *   <li>{@code **} matches any number of properties, including none.
+ *   <li>{@code /regex/} matches a property whose whole name matches the regular expression.
+ * </ul>
+ *
+ * A property matched by a rule is ignored with everything it contains. Matching a path costs one
+ * step per property of the path.
+ */
+public final class IgnoredPaths {
+
+  public static final IgnoredPaths NONE = new IgnoredPaths(List.of(), new Node());
+
+  /** State of the matching of a path, the nodes of the trie reached by the path. */
+  public static final class State {
+    static final State EMPTY = new State(new Node[0], false);
+
+    private final Node[] nodes;
+    private final boolean ignored;
+
+    private State(Node[] nodes, boolean ignored) {
+      this.nodes = nodes;
+      this.ignored = ignored;
+    }
+
+    /** Returns whether the path is ignored, with everything below it. */
+    public boolean isIgnored() {
+      return ignored;
+    }
+
+    /** Returns the state of the path extended with the name of a property or index of an item. */
+    public State next(Object key) {
+      if (nodes.length == 0 || ignored) {
+        return this;
+      }
+      String name = key.toString();
+      Set<Node> reached = new LinkedHashSet<>();
+      for (Node node : nodes) {
+        node.next(name, reached);
+      }
+      return of(reached);
+    }
+
+    private static State of(Set<Node> reached) {
+      if (reached.isEmpty()) {
+        return EMPTY;
+      }
+      for (Node node : reached.toArray(new Node[0])) {
+        closure(node, reached);
+      }
+      boolean ignored = false;
+      for (Node node : reached) {
+        ignored |= node.terminal;
+      }
+      return new State(reached.toArray(new Node[0]), ignored);
+    }
+
+    /** Adds the nodes reached without consuming a property, through {@code **}. */
+    private static void closure(Node node, Set<Node> reached) {
+      for (Node any = node.anyPath; any != null && reached.add(any); any = any.anyPath) {
+        // **.** is the same as **
+      }
+    }
+  }
+
+  private static final class Node {
+    final Map<String, Node> names = new HashMap<>();
+    final List<Pattern> patterns = new ArrayList<>();
+    final List<Node> patternNodes = new ArrayList<>();
+    Node anyName;
+    Node anyPath;
+    boolean terminal;
+    boolean isAnyPath;
+
+    void next(String name, Set<Node> reached) {
+      Node quoted = names.get(name);
+      if (quoted != null) {
+        reached.add(quoted);
+      }
+      // the parts of a name with dots are matched one after the other
+      Node node = this;
+      int start = 0;
+      while (node != null) {
+        int end = name.indexOf('.', start);
+        node = node.names.get(end < 0 ? name.substring(start) : name.substring(start, end));
+        if (end < 0) {
+          break;
+        }
+        start = end + 1;
+      }
+      if (node != null) {
+        reached.add(node);
+      }
+      if (anyName != null) {
+        reached.add(anyName);
+      }
+      for (int i = 0; i < patterns.size(); i++) {
+        if (patterns.get(i).matcher(name).matches()) {
+          reached.add(patternNodes.get(i));
+        }
+      }
+      if (isAnyPath) {
+        reached.add(this);
+      }
+    }
+  }
+
+  private final List<String> rules;
+  private final State start;
+
+  private IgnoredPaths(List<String> rules, Node root) {
+    this.rules = rules;
+    if (rules.isEmpty()) {
+      this.start = State.EMPTY;
+    } else {
+      Set<Node> reached = new LinkedHashSet<>();
+      reached.add(root);
+      this.start = State.of(reached);
+    }
+  }
+
+  /**
+   * Compiles the rules.
+   *
+   * @throws IllegalArgumentException when a rule is malformed
+   */
+  public static IgnoredPaths compile(String... rules) {
+    if (rules == null || rules.length == 0) {
+      return NONE;
+    }
+    Node root = new Node();
+    for (String rule : rules) {
+      Node node = root;
+      for (Segment segment : segments(rule)) {
+        node = child(node, segment);
+      }
+      node.terminal = true;
+    }
+    return new IgnoredPaths(List.of(rules), root);
+  }
+
+  /** Returns the state of the matching of the path of the facet itself. */
+  public State start() {
+    return start;
+  }
+
+  /** Returns whether the top level property is ignored. */
+  public boolean isIgnored(String property) {
+    return start.next(property).isIgnored();
+  }
+
+  private static Node child(Node node, Segment rule) {
+    String segment = rule.name;
+    if (rule.quoted) {
+      return node.names.computeIfAbsent(segment, p -> new Node());
+    }
+    if (segment.equals("**")) {
+      if (node.anyPath == null) {
+        node.anyPath = new Node();
+        node.anyPath.isAnyPath = true;
+      }
+      return node.anyPath;
+    }
+    if (segment.equals("*")) {
+      if (node.anyName == null) {
+        node.anyName = new Node();
+      }
+      return node.anyName;
+    }
+    if (segment.length() > 1 && segment.startsWith("/") && segment.endsWith("/")) {
+      String regex = segment.substring(1, segment.length() - 1);
+      for (int i = 0; i < node.patterns.size(); i++) {
+        if (node.patterns.get(i).pattern().equals(regex)) {
+          return node.patternNodes.get(i);
+        }
+      }
+      node.patterns.add(Pattern.compile(regex));
+      node.patternNodes.add(new Node());
+      return node.patternNodes.get(node.patternNodes.size() - 1);
+    }
+    for (String part : segment.split("\\.", -1)) {
+      node = node.names.computeIfAbsent(part, p -> new Node());
+    }
+    return node;
+  }
+
+  /** Segment of a rule, a quoted name is matched as a whole. */
+  static final class Segment {
+    final String name;
+    final boolean quoted;
+
+    Segment(String name, boolean quoted) {
+      this.name = name;
+      this.quoted = quoted;
+    }
+  }
+
+  /** Splits a rule into segments, a quoted name is a single segment which may contain dots. */
+  static List<Segment> segments(String rule) {
+    List<Segment> segments = new ArrayList<>();
+    int i = 0;
+    while (i < rule.length()) {
+      char c = rule.charAt(i);
+      int end;
+      if (c == '/') {
+        end = rule.indexOf('/', i + 1);
+        while (end > 0 && rule.charAt(end - 1) == '\\') {
+          end = rule.indexOf('/', end + 1);
+        }
+        if (end < 0) {
+          throw malformed(rule, "unterminated regular expression");
+        }
+        segments.add(new Segment(rule.substring(i, ++end), false));
+      } else if (rule.startsWith("['", i)) {
+        end = rule.indexOf("']", i + 2);
+        if (end < 0) {
+          throw malformed(rule, "unterminated quoted name");
+        }
+        segments.add(new Segment(rule.substring(i + 2, end), true));
+        end += 2;
+      } else if (c == '[') {
+        end = rule.indexOf(']', i);
+        if (end < 0) {
+          throw malformed(rule, "unterminated index");
+        }
+        segments.add(new Segment(rule.substring(i + 1, end++), false));
+      } else {
+        end = i;
+        while (end < rule.length() && rule.charAt(end) != '.' && rule.charAt(end) != '[') {
+          end++;
+        }
+        segments.add(new Segment(rule.substring(i, end), false));
+      }
+      if (end < rule.length() && rule.charAt(end) == '.') {
+        end++;
+        if (end == rule.length()) {
+          throw malformed(rule, "trailing dot");
+        }
+      } else if (end < rule.length() && rule.charAt(end) != '[') {
+        throw malformed(rule, "expected a dot at " + end);
+      }
+      i = end;
+    }
+    if (segments.isEmpty() || segments.stream().anyMatch(segment -> segment.name.isEmpty())) {
+      throw malformed(rule, "empty segment");
+    }
+    return segments;
+  }
+
+  private static IllegalArgumentException malformed(String rule, String reason) {
+    return new IllegalArgumentException("Malformed ignored property '" + rule + "': " + reason);
+  }
+
+  @Override
+  public String toString() {
+    return rules.toString();
+  }
+}
@@ -5,51 +5,48 @@
 
 package io.openlineage.utils;
 
-import static io.openlineage.client.OpenLineageClientUtils.newObjectMapper;
-
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.openlineage.client.OpenLineage.DatasetFacet;
-import io.openlineage.client.OpenLineage.InputDataset;
 import io.openlineage.client.OpenLineage.InputDatasetFacet;
-import io.openlineage.client.OpenLineage.RunEvent;
 import io.openlineage.client.utils.DatasetIdentifier;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
+import lombok.Getter;
 
 public class InputDatasetHelper {
 
   Context context;
-  ObjectMapper mapper = newObjectMapper();
   SparkActionId sparkActionId;
 
+  /** Inputs of the Spark action matched between the versions, computed on the first use. */
+  @Getter(lazy = true)
+  private final DatasetReconciliation<InputDatasetFacet> reconciliation =
+      DatasetReconciliation.of(
+          inputs(context.getPrevRecords(sparkActionId.prevRunId)),
+          inputs(context.getNextRecords(sparkActionId.nextRunId)));
+
   InputDatasetHelper(Context context, SparkActionId sparkActionId) {
     this.context = context;
     this.sparkActionId = sparkActionId;
   }
 
-  public List<InputDataset> prevInputs(DatasetIdentifier identifier) {
-    return context.getPrevEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(e -> sparkActionId.prevRunId.equals(e.getRun().getRunId()))
-        .map(RunEvent::getInputs)
-        .flatMap(List::stream)
-        .filter(d -> DatasetUtils.areSameName(DatasetUtils.toDatasetIdentifier(d), identifier))
-        .collect(Collectors.toList());
+  public List<DatasetRecord<InputDatasetFacet>> prevInputs(DatasetIdentifier identifier) {
+    DatasetReconciliation<InputDatasetFacet> reconciliation = getReconciliation();
+    return reconciliation.getPrev(reconciliation.classOf(identifier));
   }
 
-  public List<InputDataset> nextInputs(DatasetIdentifier identifier) {
-    return context.getNextEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(e -> sparkActionId.nextRunId.equals(e.getRun().getRunId()))
-        .map(RunEvent::getInputs)
+  public List<DatasetRecord<InputDatasetFacet>> nextInputs(DatasetIdentifier identifier) {
+    DatasetReconciliation<InputDatasetFacet> reconciliation = getReconciliation();
+    return reconciliation.getNext(reconciliation.classOf(identifier));
+  }
+
+  private static List<DatasetRecord<InputDatasetFacet>> inputs(List<EventRecord> records) {
+    return records.stream()
+        .map(EventRecord::getInputDatasets)
         .flatMap(List::stream)
-        .filter(d -> DatasetUtils.areSameName(DatasetUtils.toDatasetIdentifier(d), identifier))
         .collect(Collectors.toList());
   }
 
@@ -76,37 +73,25 @@ public class InputDatasetHelper {
     return map;
   }
 
-  private Set<DatasetIdentifier> ids() {
-    return context.getPrevEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(e -> sparkActionId.prevRunId.equals(e.getRun().getRunId()))
-        .flatMap(i -> i.getInputs().stream())
-        .map(DatasetUtils::toDatasetIdentifier)
-        .collect(Collectors.toSet());
-  }
-
-  public Map<String, DatasetFacet> mergedDatasetFacets(List<InputDataset> datasetList) {
-    return datasetList.stream()
-        .map(
-            d ->
-                mapper.convertValue(
-                    d.getFacets(), new TypeReference<Map<String, DatasetFacet>>() {}))
-        .reduce(this::mergeMap)
-        .orElse(Collections.EMPTY_MAP);
+  /** Identifier of each dataset from the previous version, one per dataset class. */
+  private List<DatasetIdentifier> ids() {
+    DatasetReconciliation<InputDatasetFacet> reconciliation = getReconciliation();
+    return reconciliation.getPrevClasses().stream()
+        .map(c -> reconciliation.getPrev(c).get(0).getIdentifier())
+        .collect(Collectors.toList());
   }
 
-  public Map<String, InputDatasetFacet> mergedInputDatasetFacets(List<InputDataset> datasetList) {
-    return datasetList.stream()
-        .map(
-            d ->
-                mapper.convertValue(
-                    d.getInputFacets(), new TypeReference<Map<String, InputDatasetFacet>>() {}))
-        .reduce(this::mergeMap)
-        .orElse(Collections.EMPTY_MAP);
+  public Map<String, DatasetFacet> mergedDatasetFacets(
+      List<DatasetRecord<InputDatasetFacet>> datasetList) {
+    Map<String, DatasetFacet> merged = new LinkedHashMap<>();
+    datasetList.forEach(d -> merged.putAll(d.getFacets()));
+    return merged;
   }
 
-  private <T> Map<String, T> mergeMap(Map<String, T> m1, Map<String, T> m2) {
-    m1.putAll(m2);
-    return m1;
+  public Map<String, InputDatasetFacet> mergedInputDatasetFacets(
+      List<DatasetRecord<InputDatasetFacet>> datasetList) {
+    Map<String, InputDatasetFacet> merged = new LinkedHashMap<>();
+    datasetList.forEach(d -> merged.putAll(d.getIoFacets()));
+    return merged;
   }
 }
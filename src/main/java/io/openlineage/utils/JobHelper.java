@@ -5,19 +5,15 @@
 
 package io.openlineage.utils;
 
-import static io.openlineage.client.OpenLineageClientUtils.newObjectMapper;
-
-import com.fasterxml.jackson.core.type.TypeReference;
-import io.openlineage.client.OpenLineage.Job;
 import io.openlineage.client.OpenLineage.JobFacet;
-import io.openlineage.client.OpenLineage.RunEvent;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 @AllArgsConstructor
 public class JobHelper {
@@ -25,20 +21,24 @@ public class JobHelper {
   Context context;
   SparkActionId sparkActionId;
 
-  private Stream<Job> prevJobs() {
-    return context.getPrevEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(event -> sparkActionId.prevRunId.equals(event.getRun().getRunId()))
-        .map(RunEvent::getJob)
-        .filter(Objects::nonNull);
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  private final Map<String, JobFacet> prevFacets =
+      merge(context.getPrevRecords(sparkActionId.prevRunId));
+
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  private final Map<String, JobFacet> nextFacets =
+      merge(context.getNextRecords(sparkActionId.nextRunId));
+
+  private Stream<EventRecord> prevJobs() {
+    return context.getPrevRecords(sparkActionId.prevRunId).stream().filter(JobHelper::hasJob);
+  }
+
+  private Stream<EventRecord> nextJobs() {
+    return context.getNextRecords(sparkActionId.nextRunId).stream().filter(JobHelper::hasJob);
   }
 
-  private Stream<Job> nextJobs() {
-    return context.getNextEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(event -> sparkActionId.nextRunId.equals(event.getRun().getRunId()))
-        .map(RunEvent::getJob)
-        .filter(Objects::nonNull);
+  private static boolean hasJob(EventRecord record) {
+    return record.getJobName() != null || record.getJobNamespace() != null;
   }
 
   public List<String> prevNames() {
@@ -49,8 +49,8 @@ public class JobHelper {
     return names(nextJobs());
   }
 
-  public List<String> names(Stream<Job> jobs) {
-    return jobs.map(Job::getName).collect(Collectors.toList());
+  public List<String> names(Stream<EventRecord> jobs) {
+    return jobs.map(EventRecord::getJobName).collect(Collectors.toList());
   }
 
   public List<String> prevNamespaces() {
@@ -61,24 +61,23 @@ public class JobHelper {
     return namespaces(nextJobs());
   }
 
-  public List<String> namespaces(Stream<Job> jobs) {
-    return jobs.map(Job::getNamespace).collect(Collectors.toList());
+  public List<String> namespaces(Stream<EventRecord> jobs) {
+    return jobs.map(EventRecord::getJobNamespace).collect(Collectors.toList());
   }
 
+  /** Job facets merged over all the events of the run, decoded on the first use. */
   public Map<String, JobFacet> prevMergedFacets() {
-    return prevJobs()
-        .map(this::toMap)
-        .reduce(
-            ((map1, map2) -> {
-              map1.putAll(map2);
-              return map1;
-            }))
-        .orElse(Collections.EMPTY_MAP);
+    return getPrevFacets();
   }
 
+  /** Job facets merged over all the events of the run, decoded on the first use. */
   public Map<String, JobFacet> nextMergedFacets() {
-    return nextJobs()
-        .map(this::toMap)
+    return getNextFacets();
+  }
+
+  private static Map<String, JobFacet> merge(List<EventRecord> records) {
+    return records.stream()
+        .map(EventRecord::getJobFacets)
         .reduce(
             ((map1, map2) -> {
               map1.putAll(map2);
@@ -86,9 +85,4 @@ public class JobHelper {
             }))
         .orElse(Collections.EMPTY_MAP);
   }
-
-  private Map<String, JobFacet> toMap(Job job) {
-    return newObjectMapper()
-        .convertValue(job.getFacets(), new TypeReference<Map<String, JobFacet>>() {});
-  }
 }
@@ -0,0 +1,44 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.openlineage.client.OpenLineage.RunEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streams OpenLineage events written by {@code FileTransport}. Accepts a single event per line as
+ * well as any other sequence of concatenated JSON values. The events are scanned by {@link
+ * StreamEventScanner}, hence the envelope of each event is parsed straight from the read bytes and
+ * the bytes of the event are sliced out by the offset at which the parser ends, with no second
+ * pass. The rest of the event is left to {@link EventRecord}. The file is never held in memory as a
+ * whole.
+ */
+public class JsonEventReader implements Closeable {
+
+  static final ObjectReader EVENT_READER = FacetDecoder.MAPPER.readerFor(RunEvent.class);
+
+  private final InputStream inputStream;
+  private final StreamEventScanner scanner;
+
+  public JsonEventReader(InputStream inputStream) {
+    this.inputStream = inputStream;
+    this.scanner = new StreamEventScanner(inputStream, EventFormat.JSON);
+  }
+
+  /** Reads all the events and passes each of them to the consumer in the order of occurrence. */
+  public void read(Consumer<EventRecord> consumer) throws IOException {
+    scanner.read(consumer);
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+}
@@ -0,0 +1,286 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import lombok.Getter;
+
+/**
+ * Scans OpenLineage events from a memory-mapped file, either a sequence of JSON values written by
+ * {@code FileTransport} or a log with events emitted by {@code ConsoleTransport}. The file is
+ * mapped in windows. In logs, the raw bytes are searched for the {@code ConsoleTransport: } marker
+ * with the Boyer-Moore-Horspool algorithm. The envelope of each event is parsed by Jackson straight
+ * from the mapped bytes, until the end of the JSON value, and only the bytes of the event are
+ * copied out of the file. Events spanning multiple lines need no special handling and log lines are
+ * never decoded into strings.
+ *
+ * <p>Any range of the file can be scanned on its own, so that chunks of a file can be scanned in
+ * parallel, see {@link ParallelEventLoader}. The scanner is thread-safe.
+ */
+public class MappedEventScanner implements Closeable {
+
+  static final String CONSOLE_TRANSPORT_LOG = "ConsoleTransport: ";
+  static final int WINDOW_SIZE = 1 << 30;
+
+  private static final byte[] MARKER = CONSOLE_TRANSPORT_LOG.getBytes(StandardCharsets.UTF_8);
+  private static final int[] MARKER_SKIP = skipTable(MARKER);
+  private static final byte[] LINE_START = "\n{".getBytes(StandardCharsets.UTF_8);
+  private static final int[] LINE_START_SKIP = skipTable(LINE_START);
+
+  /** Receives the events together with their offsets in the file. */
+  interface EventSink {
+    void accept(long start, EventRecord record);
+  }
+
+  private interface Finder {
+    int find(ByteBuffer buffer, int from, int to);
+  }
+
+  private final FileChannel channel;
+  @Getter private final long size;
+  private final boolean log;
+  private final int windowSize;
+  private final EventStore store;
+
+  public MappedEventScanner(Path path, EventFormat format) throws IOException {
+    this(path, format, WINDOW_SIZE, EventStore.HEAP);
+  }
+
+  MappedEventScanner(Path path, EventFormat format, EventStore store) throws IOException {
+    this(path, format, WINDOW_SIZE, store);
+  }
+
+  MappedEventScanner(Path path, EventFormat format, int windowSize) throws IOException {
+    this(path, format, windowSize, EventStore.HEAP);
+  }
+
+  MappedEventScanner(Path path, EventFormat format, int windowSize, EventStore store)
+      throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.log = format.isLog();
+    this.windowSize = windowSize;
+    this.store = store;
+  }
+
+  /** Reads the whole file and passes each event to the consumer in the order of occurrence. */
+  public void read(Consumer<EventRecord> consumer) throws IOException {
+    scan(0, size, (start, record) -> consumer.accept(record));
+  }
+
+  /**
+   * Parses the events starting within {@code [from, to)} and passes them to the sink in the order
+   * of occurrence. The last event may extend past {@code to}. The start of an event in logs is the
+   * start of its marker.
+   *
+   * @return the position following the last event, or {@code from} when there is none
+   */
+  long scan(long from, long to, EventSink sink) throws IOException {
+    long end = from;
+    long windowStart = from;
+    while (windowStart < to) {
+      int windowLength = (int) Math.min(windowSize, size - windowStart);
+      MappedByteBuffer window = channel.map(MapMode.READ_ONLY, windowStart, windowLength);
+      boolean lastWindow = windowStart + windowLength == size;
+
+      int position = 0;
+      long nextWindowStart = -1;
+      while (true) {
+        int start = findEvent(window, position, windowLength);
+        if (start < 0) {
+          break;
+        }
+        if (windowStart + start >= to) {
+          return end;
+        }
+        int jsonStart = log ? start + MARKER.length : start;
+        boolean cut = jsonStart == windowLength && !lastWindow;
+        if (!cut) {
+          try {
+            position =
+                jsonStart
+                    + parse(window, jsonStart, windowLength, windowStart + start, store, sink);
+            end = windowStart + position;
+          } catch (IOException e) {
+            if (lastWindow || start == 0 || !isEndOfInput(e)) {
+              throw e;
+            }
+            cut = true;
+          }
+        }
+        if (cut) {
+          // the event is cut by the end of the window, continue from its start
+          nextWindowStart = windowStart + start;
+          break;
+        }
+      }
+      if (nextWindowStart < 0) {
+        // a marker cut by the end of the window is searched again in the next one
+        nextWindowStart =
+            lastWindow ? size : windowStart + Math.max(position, windowLength - overlap());
+      }
+      windowStart = nextWindowStart;
+    }
+    return end;
+  }
+
+  /** Returns the start of the first event at or after the position, or -1 if there is none. */
+  long nextEvent(long from) throws IOException {
+    return locate(from, this::findEvent, overlap());
+  }
+
+  /**
+   * Returns a likely start of an event at or after the position, or -1 if there is none. In logs it
+   * is the next marker, in JSON files the next line starting with an object. Either may still lie
+   * within an event.
+   */
+  long nextBoundary(long from) throws IOException {
+    if (log) {
+      return nextEvent(from);
+    }
+    long lineStart = locate(Math.max(0, from - 1), MappedEventScanner::findLineStart, 1);
+    return lineStart < 0 ? -1 : lineStart + 1;
+  }
+
+  private long locate(long from, Finder finder, int overlap) throws IOException {
+    long windowStart = from;
+    while (windowStart < size) {
+      int windowLength = (int) Math.min(windowSize, size - windowStart);
+      MappedByteBuffer window = channel.map(MapMode.READ_ONLY, windowStart, windowLength);
+      int found = finder.find(window, 0, windowLength);
+      if (found >= 0) {
+        return windowStart + found;
+      }
+      if (windowStart + windowLength == size) {
+        break;
+      }
+      windowStart += windowLength - overlap;
+    }
+    return -1;
+  }
+
+  private int overlap() {
+    return log ? MARKER.length - 1 : 0;
+  }
+
+  /**
+   * Parses a single event from the buffer, keeps its bytes in the store and returns the number of
+   * bytes it occupies.
+   */
+  static int parse(
+      ByteBuffer window, int from, int to, long start, EventStore store, EventSink sink)
+      throws IOException {
+    ByteBuffer slice = window.duplicate();
+    slice.position(from).limit(to);
+    try (JsonParser parser =
+        FacetDecoder.MAPPER.createParser(new ByteBufferBackedInputStream(slice))) {
+      EventEnvelope envelope;
+      try {
+        parser.nextToken();
+        envelope = EventEnvelope.read(parser);
+      } catch (JsonParseException e) {
+        // some errors at the end of the input, like within whitespace, are not reported as such
+        if (e instanceof JsonEOFException
+            || parser.getCurrentLocation().getByteOffset() < to - from) {
+          throw e;
+        }
+        throw new JsonEOFException(parser, parser.currentToken(), e.getOriginalMessage());
+      }
+      int length = (int) parser.getCurrentLocation().getByteOffset();
+      ByteBuffer event = window.duplicate();
+      event.position(from).limit(from + length);
+      sink.accept(start, store.store(envelope, event));
+      return length;
+    }
+  }
+
+  static boolean isEndOfInput(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof JsonEOFException) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int findEvent(ByteBuffer buffer, int from, int to) {
+    return findEvent(buffer, from, to, log);
+  }
+
+  /**
+   * Finds the start of the next event within {@code [from, to)} of the buffer, or returns -1. In
+   * logs it is the start of the marker, otherwise the first non-whitespace byte.
+   */
+  static int findEvent(ByteBuffer buffer, int from, int to, boolean log) {
+    if (log) {
+      return indexOf(buffer, from, to);
+    }
+    for (int i = from; i < to; i++) {
+      byte b = buffer.get(i);
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int findLineStart(ByteBuffer buffer, int from, int to) {
+    return indexOf(buffer, LINE_START, LINE_START_SKIP, from, to);
+  }
+
+  /** Finds the marker within {@code [from, to)} of the buffer, or returns -1. */
+  static int indexOf(ByteBuffer buffer, int from, int to) {
+    return indexOf(buffer, MARKER, MARKER_SKIP, from, to);
+  }
+
+  private static int indexOf(ByteBuffer buffer, byte[] pattern, int[] skip, int from, int to) {
+    int last = pattern.length - 1;
+    int i = from;
+    while (i + last < to) {
+      byte b = buffer.get(i + last);
+      if (b == pattern[last]) {
+        int j = last - 1;
+        while (j >= 0 && buffer.get(i + j) == pattern[j]) {
+          j--;
+        }
+        if (j < 0) {
+          return i;
+        }
+      }
+      i += skip[b & 0xff];
+    }
+    return -1;
+  }
+
+  private static int[] skipTable(byte[] pattern) {
+    int[] skip = new int[256];
+    for (int i = 0; i < skip.length; i++) {
+      skip[i] = pattern.length;
+    }
+    for (int i = 0; i < pattern.length - 1; i++) {
+      skip[pattern[i] & 0xff] = pattern.length - 1 - i;
+    }
+    return skip;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the raw bytes of events in a temporary file mapped into memory, so the heap holds only the
+ * envelopes of the events and a buffer object per event. The bytes are paged in by the operating
+ * system when an event is decoded and paged out under memory pressure, and the garbage collector
+ * never copies nor scans them. Events are appended to segments of the file mapped one after the
+ * other, an event larger than a segment gets a mapping of its own.
+ *
+ * <p>The file is deleted when the store is closed, or as soon as it is opened where the platform
+ * allows deleting open files. The records stay readable after the store is closed, for as long as
+ * they are reachable.
+ */
+@Slf4j
+final class OffHeapEventStore implements EventStore {
+
+  /** Size of the files whose events are kept off the heap by {@link EventStore#forSource}. */
+  static final long MIN_SOURCE_SIZE = 32L << 20;
+
+  static final int SEGMENT_SIZE = 64 << 20;
+
+  private final FileChannel channel;
+  private final int segmentSize;
+  private MappedByteBuffer segment;
+  private long mapped;
+  private long size;
+  private boolean closed;
+
+  OffHeapEventStore() throws IOException {
+    this(SEGMENT_SIZE);
+  }
+
+  OffHeapEventStore(int segmentSize) throws IOException {
+    Path file = Files.createTempFile("ol-diff-events", ".tmp");
+    try {
+      this.channel =
+          FileChannel.open(
+              file,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.DELETE_ON_CLOSE);
+    } catch (IOException e) {
+      Files.deleteIfExists(file);
+      throw e;
+    }
+    this.segmentSize = segmentSize;
+  }
+
+  @Override
+  public RawEventRecord store(EventEnvelope envelope, ByteBuffer json) {
+    ByteBuffer target = reserve(json.remaining());
+    // events are copied in parallel, each into its own range
+    target.put(json);
+    target.flip();
+    return new RawEventRecord(envelope, target.asReadOnlyBuffer());
+  }
+
+  private synchronized ByteBuffer reserve(int length) {
+    if (closed) {
+      throw new IllegalStateException("The store of the events is closed");
+    }
+    if (segment == null || segment.remaining() < length) {
+      int segmentLength = Math.max(segmentSize, length);
+      try {
+        segment = channel.map(MapMode.READ_WRITE, mapped, segmentLength);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to extend the store of the events", e);
+      }
+      mapped += segmentLength;
+    }
+    ByteBuffer range = segment.slice();
+    range.limit(length);
+    segment.position(segment.position() + length);
+    size += length;
+    return range;
+  }
+
+  /** Returns the number of bytes of the stored events. */
+  synchronized long size() {
+    return size;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      segment = null;
+      channel.close();
+      log.debug("Stored {} bytes of events off the heap", size);
+    }
+  }
+}
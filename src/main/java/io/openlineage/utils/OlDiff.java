@@ -0,0 +1,217 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Command line entry point which compares two files with events using {@link DiffEngine}, without
+ * Gradle or JUnit. Exits with 0 when all the checks pass, 1 when any of them fails and 2 when the
+ * arguments are invalid or the files cannot be read. With {@code --manifest}, all the pairs of
+ * files listed in the manifest are compared by {@link BatchDiff} instead, and the exit code is 2
+ * when any of the pairs could not be compared.
+ */
+@Slf4j
+public final class OlDiff {
+
+  static final int SUCCESS = 0;
+  static final int FAILURE = 1;
+  static final int ERROR = 2;
+
+  private OlDiff() {}
+
+  public static void main(String[] args) {
+    System.exit(run(args, System.out, System.err));
+  }
+
+  static int run(String[] args, PrintStream out, PrintStream err) {
+    String prevPath = null;
+    String nextPath = null;
+    String configYaml = "";
+    String format = null;
+    String manifest = null;
+    String snapshot = null;
+    String job = null;
+    String reportPath = null;
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    boolean verbose = false;
+    boolean streaming = false;
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+      if ("--verbose".equals(arg)) {
+        verbose = true;
+        continue;
+      }
+      if ("--streaming".equals(arg)) {
+        streaming = true;
+        continue;
+      }
+      if ("-h".equals(arg) || "--help".equals(arg) || i + 1 == args.length) {
+        usage(err);
+        return ERROR;
+      }
+      switch (arg) {
+        case "--prev":
+          prevPath = args[++i];
+          break;
+        case "--next":
+          nextPath = args[++i];
+          break;
+        case "--config":
+          configYaml = args[++i];
+          break;
+        case "--format":
+          format = args[++i];
+          break;
+        case "--manifest":
+          manifest = args[++i];
+          break;
+        case "--job":
+          job = args[++i];
+          break;
+        case "--snapshot":
+          snapshot = args[++i];
+          break;
+        case "--report":
+          reportPath = args[++i];
+          break;
+        case "--parallelism":
+          try {
+            parallelism = Integer.parseInt(args[++i]);
+          } catch (NumberFormatException e) {
+            parallelism = 0;
+          }
+          if (parallelism < 1) {
+            err.println("--parallelism should be a positive number");
+            return ERROR;
+          }
+          break;
+        default:
+          usage(err);
+          return ERROR;
+      }
+    }
+    if (snapshot != null) {
+      return writeSnapshot(snapshot, format, out, err);
+    }
+    if (manifest != null) {
+      return runBatch(manifest, format, parallelism, reportPath, verbose, out, err);
+    }
+    if (prevPath == null || nextPath == null) {
+      err.println("Both --prev and --next, or --manifest are required");
+      usage(err);
+      return ERROR;
+    }
+
+    Config config;
+    try {
+      config = Context.readConfig(configYaml);
+    } catch (Exception e) {
+      log.error("Failed to read the config {}", configYaml, e);
+      err.println("Failed to read the config: " + e);
+      return ERROR;
+    }
+
+    DiffReport report;
+    try {
+      Optional<EventFormat> eventFormat = EventFormat.fromName(format);
+      String jobName = job;
+      Predicate<EventEnvelope> filter =
+          jobName == null ? envelope -> true : envelope -> envelope.isOfJob(jobName);
+      if (streaming) {
+        report =
+            new StreamingDiff(config, eventFormat, filter)
+                .run(Path.of(prevPath), Path.of(nextPath));
+      } else {
+        report =
+            new DiffEngine(Context.createContext(prevPath, nextPath, config, eventFormat, filter))
+                .run();
+      }
+    } catch (Exception e) {
+      log.error("Failed to compare {} with {}", prevPath, nextPath, e);
+      err.println("Failed to compare the files: " + e);
+      return ERROR;
+    }
+    report.print(out, verbose);
+    return report.isSuccessful() ? SUCCESS : FAILURE;
+  }
+
+  private static int writeSnapshot(String path, String format, PrintStream out, PrintStream err) {
+    try {
+      Optional<EventFormat> eventFormat = EventFormat.fromName(format);
+      Path source = Path.of(path);
+      List<EventRecord> records = Context.parseEventRecords(source, eventFormat);
+      out.println("Wrote " + EventSnapshot.write(source, eventFormat, records));
+      return SUCCESS;
+    } catch (Exception e) {
+      log.error("Failed to write the snapshot of {}", path, e);
+      err.println("Failed to write the snapshot: " + e);
+      return ERROR;
+    }
+  }
+
+  private static int runBatch(
+      String manifest,
+      String format,
+      int parallelism,
+      String reportPath,
+      boolean verbose,
+      PrintStream out,
+      PrintStream err) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      List<BatchDiff.Pair> pairs = BatchDiff.readManifest(Path.of(manifest));
+      BatchReport report = new BatchDiff(pool, EventFormat.fromName(format)).run(pairs);
+      if (reportPath == null) {
+        report.print(out, verbose);
+      } else {
+        try (PrintStream file = new PrintStream(reportPath, StandardCharsets.UTF_8)) {
+          report.print(file, verbose);
+        }
+        out.printf(
+            "%d pairs, %d failed, %d errors, report written to %s%n",
+            report.getOutcomes().size(), report.getFailed(), report.getErrors(), reportPath);
+      }
+      if (report.getErrors() > 0) {
+        return ERROR;
+      }
+      return report.getFailed() > 0 ? FAILURE : SUCCESS;
+    } catch (Exception e) {
+      log.error("Failed to compare the pairs of {}", manifest, e);
+      err.println("Failed to compare the pairs of the manifest: " + e);
+      return ERROR;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static void usage(PrintStream err) {
+    err.println(
+        "Usage: java -jar ol-diff-cli.jar --prev FILE --next FILE [--config FILE]"
+            + " [--format json|spark_log|iso_log|bracketed_log] [--job NAME] [--streaming]"
+            + " [--verbose]");
+    err.println(
+        "       java -jar ol-diff-cli.jar --manifest FILE [--parallelism N] [--report FILE]"
+            + " [--format json|spark_log|iso_log|bracketed_log] [--verbose]");
+    err.println(
+        "       java -jar ol-diff-cli.jar --snapshot FILE"
+            + " [--format json|spark_log|iso_log|bracketed_log]");
+    err.println(
+        "Each line of a manifest holds the prev, next and optional config files of a pair.");
+    err.println(
+        "A snapshot of a file is written beside it and loaded instead of the file while valid.");
+    err.println("--job compares only the events of the job and of the runs it is the parent of.");
+    err.println(
+        "--streaming reads both files incrementally and holds only the events of open runs.");
+  }
+}
@@ -5,50 +5,47 @@
 
 package io.openlineage.utils;
 
-import static io.openlineage.client.OpenLineageClientUtils.newObjectMapper;
-
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.openlineage.client.OpenLineage.DatasetFacet;
-import io.openlineage.client.OpenLineage.OutputDataset;
 import io.openlineage.client.OpenLineage.OutputDatasetFacet;
-import io.openlineage.client.OpenLineage.RunEvent;
 import io.openlineage.client.utils.DatasetIdentifier;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
+import lombok.Getter;
 
 public class OutputDatasetHelper {
   Context context;
-  ObjectMapper mapper = newObjectMapper();
   SparkActionId sparkActionId;
 
+  /** Outputs of the Spark action matched between the versions, computed on the first use. */
+  @Getter(lazy = true)
+  private final DatasetReconciliation<OutputDatasetFacet> reconciliation =
+      DatasetReconciliation.of(
+          outputs(context.getPrevRecords(sparkActionId.prevRunId)),
+          outputs(context.getNextRecords(sparkActionId.nextRunId)));
+
   OutputDatasetHelper(Context context, SparkActionId sparkActionId) {
     this.context = context;
     this.sparkActionId = sparkActionId;
   }
 
-  public List<OutputDataset> prevOutputs(DatasetIdentifier identifier) {
-    return context.getPrevEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(e -> sparkActionId.prevRunId.equals(e.getRun().getRunId()))
-        .map(RunEvent::getOutputs)
-        .flatMap(List::stream)
-        .filter(d -> DatasetUtils.areSameName(DatasetUtils.toDatasetIdentifier(d), identifier))
-        .collect(Collectors.toList());
+  public List<DatasetRecord<OutputDatasetFacet>> prevOutputs(DatasetIdentifier identifier) {
+    DatasetReconciliation<OutputDatasetFacet> reconciliation = getReconciliation();
+    return reconciliation.getPrev(reconciliation.classOf(identifier));
   }
 
-  public List<OutputDataset> nextOutputs(DatasetIdentifier identifier) {
-    return context.getNextEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(e -> sparkActionId.nextRunId.equals(e.getRun().getRunId()))
-        .map(RunEvent::getOutputs)
+  public List<DatasetRecord<OutputDatasetFacet>> nextOutputs(DatasetIdentifier identifier) {
+    DatasetReconciliation<OutputDatasetFacet> reconciliation = getReconciliation();
+    return reconciliation.getNext(reconciliation.classOf(identifier));
+  }
+
+  private static List<DatasetRecord<OutputDatasetFacet>> outputs(List<EventRecord> records) {
+    return records.stream()
+        .map(EventRecord::getOutputDatasets)
         .flatMap(List::stream)
-        .filter(d -> DatasetUtils.areSameName(DatasetUtils.toDatasetIdentifier(d), identifier))
         .collect(Collectors.toList());
   }
 
@@ -73,38 +70,25 @@ public class OutputDatasetHelper {
     return map;
   }
 
-  private Set<DatasetIdentifier> ids() {
-    return context.getPrevEvents().stream()
-        .filter(e -> e.getRun() != null)
-        .filter(e -> sparkActionId.prevRunId.equals(e.getRun().getRunId()))
-        .flatMap(i -> i.getOutputs().stream())
-        .map(DatasetUtils::toDatasetIdentifier)
-        .collect(Collectors.toSet());
+  /** Identifier of each dataset from the previous version, one per dataset class. */
+  private List<DatasetIdentifier> ids() {
+    DatasetReconciliation<OutputDatasetFacet> reconciliation = getReconciliation();
+    return reconciliation.getPrevClasses().stream()
+        .map(c -> reconciliation.getPrev(c).get(0).getIdentifier())
+        .collect(Collectors.toList());
   }
 
-  public Map<String, DatasetFacet> mergedDatasetFacets(List<OutputDataset> datasetList) {
-    return datasetList.stream()
-        .map(
-            d ->
-                mapper.convertValue(
-                    d.getFacets(), new TypeReference<Map<String, DatasetFacet>>() {}))
-        .reduce(this::mergeMap)
-        .orElse(Collections.EMPTY_MAP);
+  public Map<String, DatasetFacet> mergedDatasetFacets(
+      List<DatasetRecord<OutputDatasetFacet>> datasetList) {
+    Map<String, DatasetFacet> merged = new LinkedHashMap<>();
+    datasetList.forEach(d -> merged.putAll(d.getFacets()));
+    return merged;
   }
 
   public Map<String, OutputDatasetFacet> mergedOutputDatasetFacets(
-      List<OutputDataset> datasetList) {
-    return datasetList.stream()
-        .map(
-            d ->
-                mapper.convertValue(
-                    d.getOutputFacets(), new TypeReference<Map<String, OutputDatasetFacet>>() {}))
-        .reduce(this::mergeMap)
-        .orElse(Collections.EMPTY_MAP);
-  }
-
-  private <T> Map<String, T> mergeMap(Map<String, T> m1, Map<String, T> m2) {
-    m1.putAll(m2);
-    return m1;
+      List<DatasetRecord<OutputDatasetFacet>> datasetList) {
+    Map<String, OutputDatasetFacet> merged = new LinkedHashMap<>();
+    datasetList.forEach(d -> merged.putAll(d.getIoFacets()));
+    return merged;
   }
 }
@@ -0,0 +1,172 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the events of a file on all cores. The file is split into chunks which are scanned in
+ * parallel with {@link MappedEventScanner}, each from a likely event boundary: a marker in logs, a
+ * line starting with an object in JSON files. Such a boundary may still lie within an event, so the
+ * chunks are merged in the order of the file and each is checked against the position where the
+ * previous one ended. A chunk which started at a wrong boundary is scanned again from the right
+ * one, hence the result is always the same as from a sequential scan.
+ */
+@Slf4j
+public class ParallelEventLoader {
+
+  static final long MIN_CHUNK_SIZE = 32L << 20;
+
+  private final ForkJoinPool pool;
+  private final long minChunkSize;
+  private final EventStore store;
+
+  public ParallelEventLoader() {
+    this(ForkJoinPool.commonPool(), MIN_CHUNK_SIZE, EventStore.HEAP);
+  }
+
+  ParallelEventLoader(ForkJoinPool pool, long minChunkSize) {
+    this(pool, minChunkSize, EventStore.HEAP);
+  }
+
+  ParallelEventLoader(ForkJoinPool pool, long minChunkSize, EventStore store) {
+    this.pool = pool;
+    this.minChunkSize = minChunkSize;
+    this.store = store;
+  }
+
+  /** Loads all the events of the file in the order of occurrence. */
+  public List<EventRecord> load(Path path, EventFormat format) throws IOException {
+    List<EventRecord> records = new ArrayList<>();
+    load(path, format, (start, record) -> records.add(record));
+    return records;
+  }
+
+  /**
+   * Loads all the events of the file and passes them to the sink in the order of occurrence,
+   * together with their offsets in the file, see {@link MappedEventScanner#scan}.
+   */
+  void load(Path path, EventFormat format, MappedEventScanner.EventSink sink) throws IOException {
+    try (MappedEventScanner scanner = new MappedEventScanner(path, format, store)) {
+      long size = scanner.getSize();
+      // a few chunks per thread balance the load when events are unevenly distributed
+      long chunkSize = Math.max(minChunkSize, size / (pool.getParallelism() * 4L) + 1);
+      if (size <= chunkSize) {
+        scanner.scan(0, size, sink);
+        return;
+      }
+
+      List<ForkJoinTask<Chunk>> tasks = new ArrayList<>();
+      for (long from = 0; from < size; from += chunkSize) {
+        long chunkFrom = from;
+        long chunkTo = Math.min(size, from + chunkSize);
+        tasks.add(pool.submit(() -> Chunk.scanFromBoundary(scanner, chunkFrom, chunkTo)));
+      }
+
+      int count = 0;
+      long position = 0;
+      int rescanned = 0;
+      for (ForkJoinTask<Chunk> task : tasks) {
+        Chunk chunk = task.join();
+        if (position >= chunk.to) {
+          // the chunk lies within the last event of the previous one
+          continue;
+        }
+        long next = scanner.nextEvent(position);
+        if (next < 0) {
+          break;
+        }
+        if (next >= chunk.to) {
+          continue;
+        }
+        int first = chunk.indexOf(next);
+        if (first < 0) {
+          chunk = Chunk.scan(scanner, next, chunk.to);
+          first = 0;
+          rescanned++;
+        }
+        chunk.throwIfFailed();
+        for (int i = first; i < chunk.records.size(); i++) {
+          sink.accept(chunk.starts[i], chunk.records.get(i));
+        }
+        count += chunk.records.size() - first;
+        position = chunk.end;
+      }
+      log.debug(
+          "Loaded {} events from {} in {} chunks, {} scanned again",
+          count,
+          path,
+          tasks.size(),
+          rescanned);
+    }
+  }
+
+  /** Events starting within a range of the file, scanned from a given position. */
+  private static class Chunk {
+    final long to;
+    final List<EventRecord> records = new ArrayList<>();
+    long[] starts = new long[16];
+    long end;
+    Exception failure;
+
+    private Chunk(long to) {
+      this.to = to;
+    }
+
+    static Chunk scanFromBoundary(MappedEventScanner scanner, long from, long to) {
+      try {
+        long boundary = from == 0 ? 0 : scanner.nextBoundary(from);
+        return scan(scanner, boundary < 0 ? to : boundary, to);
+      } catch (IOException e) {
+        Chunk chunk = new Chunk(to);
+        chunk.failure = e;
+        return chunk;
+      }
+    }
+
+    static Chunk scan(MappedEventScanner scanner, long from, long to) {
+      Chunk chunk = new Chunk(to);
+      chunk.end = from;
+      try {
+        chunk.end = scanner.scan(from, to, chunk::add);
+      } catch (IOException | RuntimeException e) {
+        // a chunk which started within an event is likely to fail, it is rescanned when needed
+        chunk.failure = e;
+      }
+      return chunk;
+    }
+
+    private void add(long start, EventRecord record) {
+      int count = records.size();
+      if (count == starts.length) {
+        starts = Arrays.copyOf(starts, count * 2);
+      }
+      starts[count] = start;
+      records.add(record);
+    }
+
+    int indexOf(long start) {
+      int index = Arrays.binarySearch(starts, 0, records.size(), start);
+      return index < 0 ? -1 : index;
+    }
+
+    void throwIfFailed() throws IOException {
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      }
+      if (failure != null) {
+        throw (RuntimeException) failure;
+      }
+    }
+  }
+}
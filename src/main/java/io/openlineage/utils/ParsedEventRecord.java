@@ -0,0 +1,64 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.InputDataset;
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
+import io.openlineage.client.OpenLineage.JobFacet;
+import io.openlineage.client.OpenLineage.OutputDataset;
+import io.openlineage.client.OpenLineage.OutputDatasetFacet;
+import io.openlineage.client.OpenLineage.RunEvent;
+import io.openlineage.client.OpenLineage.RunFacet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/** Record of an event which has already been deserialized, for instance built in a test. */
+class ParsedEventRecord extends EventRecord {
+
+  private final RunEvent event;
+
+  ParsedEventRecord(RunEvent event) {
+    super(EventEnvelope.of(event));
+    this.event = event;
+  }
+
+  @Override
+  public Map<String, RunFacet> getRunFacets() {
+    return FacetDecoder.runFacets(event.getRun() == null ? null : event.getRun().getFacets());
+  }
+
+  @Override
+  public Map<String, JobFacet> getJobFacets() {
+    return FacetDecoder.jobFacets(event.getJob() == null ? null : event.getJob().getFacets());
+  }
+
+  @Override
+  public List<InputDataset> getInputs() {
+    return event.getInputs() == null ? Collections.emptyList() : event.getInputs();
+  }
+
+  @Override
+  public List<OutputDataset> getOutputs() {
+    return event.getOutputs() == null ? Collections.emptyList() : event.getOutputs();
+  }
+
+  @Override
+  public List<DatasetRecord<InputDatasetFacet>> getInputDatasets() {
+    return getInputs().stream().map(DatasetRecord::of).collect(Collectors.toList());
+  }
+
+  @Override
+  public List<DatasetRecord<OutputDatasetFacet>> getOutputDatasets() {
+    return getOutputs().stream().map(DatasetRecord::of).collect(Collectors.toList());
+  }
+
+  @Override
+  public RunEvent toRunEvent() {
+    return event;
+  }
+}
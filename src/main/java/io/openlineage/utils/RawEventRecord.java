@@ -0,0 +1,194 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import io.openlineage.client.OpenLineage.InputDataset;
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
+import io.openlineage.client.OpenLineage.JobFacet;
+import io.openlineage.client.OpenLineage.OutputDataset;
+import io.openlineage.client.OpenLineage.OutputDatasetFacet;
+import io.openlineage.client.OpenLineage.RunEvent;
+import io.openlineage.client.OpenLineage.RunFacet;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.SneakyThrows;
+
+/**
+ * Record of an event kept as the raw JSON bytes it was read from. Each decoding method parses the
+ * bytes again, skipping over everything up to the requested part of the event at the token level.
+ * The bytes are either on the heap or off it, see {@link EventStore}.
+ */
+class RawEventRecord extends EventRecord {
+
+  private static final ObjectReader INPUTS_READER =
+      FacetDecoder.MAPPER.readerFor(new TypeReference<List<InputDataset>>() {});
+  private static final ObjectReader OUTPUTS_READER =
+      FacetDecoder.MAPPER.readerFor(new TypeReference<List<OutputDataset>>() {});
+
+  private final ByteBuffer json;
+
+  RawEventRecord(EventEnvelope envelope, byte[] json) {
+    this(envelope, ByteBuffer.wrap(json));
+  }
+
+  /** Creates the record of the event encoded in the remaining bytes, which must not change. */
+  RawEventRecord(EventEnvelope envelope, ByteBuffer json) {
+    super(envelope);
+    this.json = json;
+  }
+
+  /** Reads the envelope of the event encoded in the bytes, which are owned by the record. */
+  static RawEventRecord parse(byte[] json) throws IOException {
+    try (JsonParser parser = FacetDecoder.MAPPER.createParser(json)) {
+      parser.nextToken();
+      return new RawEventRecord(EventEnvelope.read(parser), json);
+    }
+  }
+
+  /**
+   * Returns the bytes of the event, which must not be modified. Bytes kept off the heap are copied.
+   */
+  byte[] getJson() {
+    if (json.hasArray()
+        && json.arrayOffset() == 0
+        && json.position() == 0
+        && json.remaining() == json.array().length) {
+      return json.array();
+    }
+    byte[] bytes = new byte[json.remaining()];
+    json.duplicate().get(bytes);
+    return bytes;
+  }
+
+  int getJsonLength() {
+    return json.remaining();
+  }
+
+  boolean isOffHeap() {
+    return json.isDirect();
+  }
+
+  @Override
+  public Map<String, RunFacet> getRunFacets() {
+    return facets(FacetDecoder.Kind.RUN, "run", "facets");
+  }
+
+  @Override
+  public Map<String, JobFacet> getJobFacets() {
+    return facets(FacetDecoder.Kind.JOB, "job", "facets");
+  }
+
+  @Override
+  public List<InputDataset> getInputs() {
+    return datasets(INPUTS_READER, "inputs");
+  }
+
+  @Override
+  public List<OutputDataset> getOutputs() {
+    return datasets(OUTPUTS_READER, "outputs");
+  }
+
+  @Override
+  public List<DatasetRecord<InputDatasetFacet>> getInputDatasets() {
+    return datasetRecords("inputs", "inputFacets", FacetDecoder.Kind.INPUT_DATASET);
+  }
+
+  @Override
+  public List<DatasetRecord<OutputDatasetFacet>> getOutputDatasets() {
+    return datasetRecords("outputs", "outputFacets", FacetDecoder.Kind.OUTPUT_DATASET);
+  }
+
+  @Override
+  @SneakyThrows
+  public RunEvent toRunEvent() {
+    if (json.hasArray()) {
+      return JsonEventReader.EVENT_READER.readValue(
+          json.array(), json.arrayOffset() + json.position(), json.remaining());
+    }
+    return JsonEventReader.EVENT_READER.readValue(
+        new ByteBufferBackedInputStream(json.duplicate()));
+  }
+
+  @SneakyThrows
+  private <T> Map<String, T> facets(FacetDecoder.Kind kind, String... path) {
+    try (JsonParser parser = parserAt(path)) {
+      return parser == null ? new LinkedHashMap<>() : FacetDecoder.read(parser, kind);
+    }
+  }
+
+  @SneakyThrows
+  private <T> List<T> datasets(ObjectReader reader, String field) {
+    try (JsonParser parser = parserAt(field)) {
+      List<T> datasets = parser == null ? null : reader.readValue(parser);
+      return datasets == null ? new ArrayList<>() : datasets;
+    }
+  }
+
+  @SneakyThrows
+  private <F> List<DatasetRecord<F>> datasetRecords(
+      String field, String ioField, FacetDecoder.Kind ioKind) {
+    List<DatasetRecord<F>> datasets = new ArrayList<>();
+    try (JsonParser parser = parserAt(field)) {
+      if (parser != null && parser.currentToken() == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          datasets.add(DatasetRecord.read(parser, ioField, ioKind));
+        }
+      }
+    }
+    return datasets;
+  }
+
+  /**
+   * Returns a parser positioned at the value under the path of object fields, or null when the
+   * value is missing or null.
+   */
+  private JsonParser parserAt(String... path) throws IOException {
+    JsonParser parser = createParser();
+    JsonToken token = parser.nextToken();
+    for (String field : path) {
+      if (token != JsonToken.START_OBJECT || !seek(parser, field)) {
+        parser.close();
+        return null;
+      }
+      token = parser.currentToken();
+    }
+    if (token == JsonToken.VALUE_NULL) {
+      parser.close();
+      return null;
+    }
+    return parser;
+  }
+
+  private JsonParser createParser() throws IOException {
+    if (json.hasArray()) {
+      return FacetDecoder.MAPPER.createParser(
+          json.array(), json.arrayOffset() + json.position(), json.remaining());
+    }
+    return FacetDecoder.MAPPER.createParser(new ByteBufferBackedInputStream(json.duplicate()));
+  }
+
+  /** Moves the parser from the start of an object to the value of its field. */
+  private static boolean seek(JsonParser parser, String field) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      boolean found = field.equals(parser.getCurrentName());
+      parser.nextToken();
+      if (found) {
+        return true;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+}
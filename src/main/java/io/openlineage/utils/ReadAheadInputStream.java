@@ -0,0 +1,139 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Reads a stream ahead on a background thread, so that reading and decompressing a file overlaps
+ * with parsing it. The bytes are handed over in a few recycled chunks, which bounds the memory used
+ * regardless of the size of the stream. A failure of the background read is rethrown to the reader
+ * once the chunks read before it are consumed. Closing the stream stops the background thread and
+ * closes the source.
+ */
+class ReadAheadInputStream extends InputStream {
+
+  static final int CHUNK_SIZE = 256 * 1024;
+  static final int CHUNKS = 4;
+
+  private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+  private final InputStream source;
+  private final BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(CHUNKS + 1);
+  private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(CHUNKS);
+  private final Thread reader;
+  private volatile IOException failure;
+  private ByteBuffer current;
+
+  ReadAheadInputStream(InputStream source, String name) {
+    this.source = source;
+    for (int i = 0; i < CHUNKS; i++) {
+      free.add(ByteBuffer.allocate(CHUNK_SIZE));
+    }
+    this.reader = new Thread(this::readAhead, "read-ahead " + name);
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  private void readAhead() {
+    try {
+      while (true) {
+        ByteBuffer chunk = free.take();
+        int length = readChunk(chunk.array());
+        chunk.clear().limit(length);
+        if (length > 0) {
+          filled.add(chunk);
+        }
+        if (length < chunk.capacity()) {
+          break;
+        }
+      }
+    } catch (InterruptedException e) {
+      // closed before the end of the stream
+    } catch (IOException e) {
+      failure = e;
+    } catch (RuntimeException e) {
+      failure = new IOException(e);
+    } finally {
+      // there is always room for the end, as at most all the chunks are filled
+      filled.add(END);
+    }
+  }
+
+  private int readChunk(byte[] chunk) throws IOException {
+    int length = 0;
+    while (length < chunk.length) {
+      int read = source.read(chunk, length, chunk.length - length);
+      if (read < 0) {
+        break;
+      }
+      length += read;
+    }
+    return length;
+  }
+
+  @Override
+  public int read() throws IOException {
+    return nextChunk() ? current.get() & 0xff : -1;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    if (!nextChunk()) {
+      return -1;
+    }
+    int read = Math.min(length, current.remaining());
+    current.get(bytes, offset, read);
+    return read;
+  }
+
+  /** Makes the current chunk one with remaining bytes, returns false at the end of the stream. */
+  private boolean nextChunk() throws IOException {
+    while (current != END && (current == null || !current.hasRemaining())) {
+      if (current != null) {
+        free.add(current);
+      }
+      try {
+        current = filled.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the read ahead");
+      }
+    }
+    if (current == END) {
+      if (failure != null) {
+        throw failure;
+      }
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public int available() {
+    return current == null || current == END ? 0 : current.remaining();
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.interrupt();
+    try {
+      reader.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      source.close();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.Value;
+
+/**
+ * Aligns the runs of the Spark actions of the previous version with the runs of the next version.
+ * Each run is keyed by its job name, its parent run and its ordinal among the runs of the same job
+ * and parent, and the runs with equal keys are matched through a hash map, in linear time. Parent
+ * runs are keyed by the order in which they appear, as their ids differ between the versions.
+ *
+ * <p>Runs without a counterpart are reported on both sides rather than disabling the whole diff, so
+ * a single extra action of a long running application leaves the other actions compared.
+ */
+final class RunAligner {
+
+  /** Run of a Spark action, identified by its first START event. */
+  @Value
+  static class ActionRun {
+    UUID runId;
+    String jobName;
+  }
+
+  /** Matched runs in the order of the previous version and the runs left unmatched. */
+  @Value
+  static class RunAlignment {
+    List<SparkActionId> matched;
+    List<ActionRun> unmatchedPrev;
+    List<ActionRun> unmatchedNext;
+
+    boolean isComplete() {
+      return unmatchedPrev.isEmpty() && unmatchedNext.isEmpty();
+    }
+  }
+
+  /** Key of a run, equal for the runs of both versions which are matched. */
+  @Value
+  static class RunKey {
+    String jobName;
+    int parent;
+    int ordinal;
+  }
+
+  /** Keys the runs one START event at a time, in the order they are started. */
+  static final class RunKeyer {
+    private final Map<UUID, Integer> parents = new HashMap<>();
+    private final Map<RunKey, Integer> ordinals = new HashMap<>();
+
+    RunKey next(EventRecord start) {
+      int parent =
+          start.getParentRunId() == null
+              ? -1
+              : parents.computeIfAbsent(start.getParentRunId(), k -> parents.size());
+      RunKey jobKey = new RunKey(start.getJobName(), parent, 0);
+      int ordinal = ordinals.merge(jobKey, 1, Integer::sum) - 1;
+      return new RunKey(start.getJobName(), parent, ordinal);
+    }
+  }
+
+  private RunAligner() {}
+
+  /**
+   * Aligns the runs started in the records. The runs of Spark applications, which are the parents
+   * of other runs, are left out when excluded.
+   */
+  static RunAlignment align(
+      List<EventRecord> prevRecords,
+      List<EventRecord> nextRecords,
+      boolean excludeApplicationEvents) {
+    Map<RunKey, ActionRun> prevRuns = keyedRuns(prevRecords, excludeApplicationEvents);
+    Map<RunKey, ActionRun> nextRuns = keyedRuns(nextRecords, excludeApplicationEvents);
+
+    List<SparkActionId> matched = new ArrayList<>();
+    List<ActionRun> unmatchedPrev = new ArrayList<>();
+    for (Map.Entry<RunKey, ActionRun> prev : prevRuns.entrySet()) {
+      ActionRun next = nextRuns.remove(prev.getKey());
+      if (next == null) {
+        unmatchedPrev.add(prev.getValue());
+      } else {
+        matched.add(
+            SparkActionId.builder()
+                .jobName(prev.getValue().getJobName())
+                .prevRunId(prev.getValue().getRunId())
+                .nextRunId(next.getRunId())
+                .build());
+      }
+    }
+    return new RunAlignment(
+        Collections.unmodifiableList(matched),
+        Collections.unmodifiableList(unmatchedPrev),
+        Collections.unmodifiableList(new ArrayList<>(nextRuns.values())));
+  }
+
+  /** Returns the runs started in the records by their keys, in the order they were started. */
+  private static Map<RunKey, ActionRun> keyedRuns(
+      List<EventRecord> records, boolean excludeApplicationEvents) {
+    Set<UUID> applicationRunIds = new HashSet<>();
+    if (excludeApplicationEvents) {
+      for (EventRecord record : records) {
+        if (record.getParentRunId() != null) {
+          applicationRunIds.add(record.getParentRunId());
+        }
+      }
+    }
+    Set<UUID> started = new HashSet<>();
+    RunKeyer keyer = new RunKeyer();
+    Map<RunKey, ActionRun> runs = new LinkedHashMap<>();
+    for (EventRecord record : records) {
+      UUID runId = record.getRunId();
+      if (!EventType.START.equals(record.getEventType())
+          || applicationRunIds.contains(runId)
+          || !started.add(runId)) {
+        continue;
+      }
+      runs.put(keyer.next(record), new ActionRun(runId, record.getJobName()));
+    }
+    return runs;
+  }
+}
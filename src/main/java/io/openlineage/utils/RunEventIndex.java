@@ -0,0 +1,51 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Event records of a single file grouped by their run id. The index is built once, on the first
+ * lookup, so the events list must not change afterwards.
+ */
+class RunEventIndex {
+
+  private final List<EventRecord> events;
+  private volatile Map<UUID, List<EventRecord>> eventsByRunId;
+
+  RunEventIndex(List<EventRecord> events) {
+    this.events = events;
+  }
+
+  /** Returns events of the run in the order of occurrence. */
+  List<EventRecord> get(UUID runId) {
+    return index().getOrDefault(runId, Collections.emptyList());
+  }
+
+  private Map<UUID, List<EventRecord>> index() {
+    Map<UUID, List<EventRecord>> index = eventsByRunId;
+    if (index == null) {
+      synchronized (this) {
+        index = eventsByRunId;
+        if (index == null) {
+          index = new HashMap<>();
+          for (EventRecord event : events) {
+            if (event.getRunId() != null) {
+              index.computeIfAbsent(event.getRunId(), k -> new ArrayList<>()).add(event);
+            }
+          }
+          eventsByRunId = index;
+        }
+      }
+    }
+    return index;
+  }
+}
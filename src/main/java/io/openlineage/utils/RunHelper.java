@@ -5,17 +5,13 @@
 
 package io.openlineage.utils;
 
-import static io.openlineage.client.OpenLineageClientUtils.newObjectMapper;
-
-import com.fasterxml.jackson.core.type.TypeReference;
-import io.openlineage.client.OpenLineage.Run;
-import io.openlineage.client.OpenLineage.RunEvent;
 import io.openlineage.client.OpenLineage.RunFacet;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Stream;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 
 @AllArgsConstructor
 public class RunHelper {
@@ -23,34 +19,27 @@ public class RunHelper {
   Context context;
   SparkActionId sparkActionId;
 
-  private Stream<Run> prevRuns() {
-    return context.getPrevEvents().stream()
-        .map(RunEvent::getRun)
-        .filter(Objects::nonNull)
-        .filter(e -> sparkActionId.prevRunId.equals(e.getRunId()));
-  }
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  private final Map<String, RunFacet> prevFacets =
+      merge(context.getPrevRecords(sparkActionId.prevRunId));
 
-  private Stream<Run> nextRuns() {
-    return context.getNextEvents().stream()
-        .map(RunEvent::getRun)
-        .filter(Objects::nonNull)
-        .filter(e -> sparkActionId.nextRunId.equals(e.getRunId()));
-  }
+  @Getter(value = AccessLevel.PRIVATE, lazy = true)
+  private final Map<String, RunFacet> nextFacets =
+      merge(context.getNextRecords(sparkActionId.nextRunId));
 
+  /** Run facets merged over all the events of the run, decoded on the first use. */
   public Map<String, RunFacet> prevMergedFacets() {
-    return prevRuns()
-        .map(this::toMap)
-        .reduce(
-            ((map1, map2) -> {
-              map1.putAll(map2);
-              return map1;
-            }))
-        .orElse(Collections.EMPTY_MAP);
+    return getPrevFacets();
   }
 
+  /** Run facets merged over all the events of the run, decoded on the first use. */
   public Map<String, RunFacet> nextMergedFacets() {
-    return nextRuns()
-        .map(this::toMap)
+    return getNextFacets();
+  }
+
+  private static Map<String, RunFacet> merge(List<EventRecord> records) {
+    return records.stream()
+        .map(EventRecord::getRunFacets)
         .reduce(
             ((map1, map2) -> {
               map1.putAll(map2);
@@ -58,9 +47,4 @@ public class RunHelper {
             }))
         .orElse(Collections.EMPTY_MAP);
   }
-
-  private Map<String, RunFacet> toMap(Run run) {
-    return newObjectMapper()
-        .convertValue(run.getFacets(), new TypeReference<Map<String, RunFacet>>() {});
-  }
 }
@@ -0,0 +1,173 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Loads the events of gzip and zstd compressed files, as well as of tar and zip archives, without
+ * writing them decompressed to disk. The kind of a file is recognized by its magic bytes rather
+ * than its extension, so compressed archives like {@code .tar.gz} and compressed files within
+ * archives are read too. Decompression runs on a background thread, overlapped with parsing of the
+ * decompressed stream by {@link StreamEventScanner}. The events of all the files of an archive are
+ * loaded in the order of the archive. Unless given explicitly, the format of each file is detected
+ * from its beginning.
+ *
+ * <p>Plain files should be loaded with {@link ParallelEventLoader}, which maps them into memory.
+ */
+@Slf4j
+public class StreamEventLoader {
+
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final int HEADER_SIZE = TarInputStream.MAGIC_OFFSET + 8;
+
+  private final EventStore store;
+
+  public StreamEventLoader() {
+    this(EventStore.HEAP);
+  }
+
+  StreamEventLoader(EventStore store) {
+    this.store = store;
+  }
+
+  enum Packing {
+    PLAIN,
+    GZIP,
+    ZSTD,
+    ZIP,
+    TAR;
+
+    static Packing of(byte[] header, int length) {
+      if (startsWith(header, length, 0x1f, 0x8b)) {
+        return GZIP;
+      }
+      if (startsWith(header, length, 0x28, 0xb5, 0x2f, 0xfd)) {
+        return ZSTD;
+      }
+      if (startsWith(header, length, 'P', 'K', 3, 4)) {
+        return ZIP;
+      }
+      return TarInputStream.isTar(header, length) ? TAR : PLAIN;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... magic) {
+      if (length < magic.length) {
+        return false;
+      }
+      for (int i = 0; i < magic.length; i++) {
+        if ((header[i] & 0xff) != magic[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /** Checks if the file is compressed or an archive, judging by its first bytes. */
+  public static boolean isPacked(Path path) throws IOException {
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      byte[] header = inputStream.readNBytes(HEADER_SIZE);
+      return Packing.of(header, header.length) != Packing.PLAIN;
+    }
+  }
+
+  /** Loads all the events of the file in the order of occurrence. */
+  public List<EventRecord> load(Path path, Optional<EventFormat> format) throws IOException {
+    List<EventRecord> records = new ArrayList<>();
+    load(path, format, records::add);
+    return records;
+  }
+
+  /** Passes all the events of the file to the sink in the order of occurrence, one at a time. */
+  public void load(Path path, Optional<EventFormat> format, Consumer<EventRecord> sink)
+      throws IOException {
+    try (InputStream inputStream = Files.newInputStream(path)) {
+      read(inputStream, path.toString(), format, sink);
+    }
+  }
+
+  private void read(
+      InputStream inputStream,
+      String name,
+      Optional<EventFormat> format,
+      Consumer<EventRecord> sink)
+      throws IOException {
+    BufferedInputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+    byte[] header = peek(buffered, HEADER_SIZE);
+    switch (Packing.of(header, header.length)) {
+      case GZIP:
+        // the archive stream is left open, it may hold further files
+        try (InputStream decompressed =
+            new ReadAheadInputStream(new GZIPInputStream(unclosed(buffered), BUFFER_SIZE), name)) {
+          read(decompressed, name, format, sink);
+        }
+        break;
+      case ZSTD:
+        try (InputStream decompressed =
+            new ReadAheadInputStream(new ZstdInputStream(unclosed(buffered)), name)) {
+          read(decompressed, name, format, sink);
+        }
+        break;
+      case ZIP:
+        ZipInputStream zip = new ZipInputStream(buffered);
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+          if (!entry.isDirectory()) {
+            read(zip, name + "!" + entry.getName(), format, sink);
+          }
+        }
+        break;
+      case TAR:
+        TarInputStream tar = new TarInputStream(buffered);
+        for (String entry = tar.getNextEntry(); entry != null; entry = tar.getNextEntry()) {
+          read(tar, name + "!" + entry, format, sink);
+        }
+        break;
+      default:
+        EventFormat eventFormat = format.isPresent() ? format.get() : detect(buffered, name);
+        new StreamEventScanner(buffered, eventFormat, store).read(sink);
+    }
+  }
+
+  private static EventFormat detect(BufferedInputStream buffered, String name) throws IOException {
+    byte[] sample = peek(buffered, EventFormatDetector.SAMPLE_SIZE);
+    int length = sample.length;
+    EventFormat format =
+        EventFormatDetector.detect(sample, length, length < EventFormatDetector.SAMPLE_SIZE);
+    log.info("Detected {} format of {}", format, name);
+    return format;
+  }
+
+  /** Reads up to the given number of bytes without consuming them. */
+  private static byte[] peek(BufferedInputStream buffered, int length) throws IOException {
+    buffered.mark(length);
+    byte[] bytes = buffered.readNBytes(length);
+    buffered.reset();
+    return bytes;
+  }
+
+  private static InputStream unclosed(InputStream inputStream) {
+    return new FilterInputStream(inputStream) {
+      @Override
+      public void close() {}
+    };
+  }
+}
@@ -0,0 +1,119 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Scans OpenLineage events from a stream the same way {@link MappedEventScanner} scans them from a
+ * file, for inputs which cannot be mapped, like decompressed files. The stream is read into a
+ * buffer which slides over it. An event cut by the end of the buffer is parsed again once the rest
+ * of it is read, and the buffer grows when a single event does not fit in it. The stream is not
+ * closed.
+ */
+public class StreamEventScanner {
+
+  static final int BUFFER_SIZE = 1 << 20;
+
+  private final InputStream inputStream;
+  private final boolean log;
+  private final EventStore store;
+  private byte[] buffer;
+  private int position;
+  private int limit;
+  private boolean endOfStream;
+
+  public StreamEventScanner(InputStream inputStream, EventFormat format) {
+    this(inputStream, format, BUFFER_SIZE, EventStore.HEAP);
+  }
+
+  StreamEventScanner(InputStream inputStream, EventFormat format, EventStore store) {
+    this(inputStream, format, BUFFER_SIZE, store);
+  }
+
+  StreamEventScanner(InputStream inputStream, EventFormat format, int bufferSize) {
+    this(inputStream, format, bufferSize, EventStore.HEAP);
+  }
+
+  StreamEventScanner(
+      InputStream inputStream, EventFormat format, int bufferSize, EventStore store) {
+    this.inputStream = inputStream;
+    this.log = format.isLog();
+    this.store = store;
+    this.buffer = new byte[bufferSize];
+  }
+
+  /** Reads the whole stream and passes each event to the consumer in the order of occurrence. */
+  public void read(Consumer<EventRecord> consumer) throws IOException {
+    fill();
+    while (true) {
+      ByteBuffer window = ByteBuffer.wrap(buffer, 0, limit);
+      int start = MappedEventScanner.findEvent(window, position, limit, log);
+      if (start < 0) {
+        if (endOfStream) {
+          return;
+        }
+        // a marker cut by the end of the buffer is searched again after the next read
+        position = Math.max(position, limit - overlap());
+        fill();
+        continue;
+      }
+      int jsonStart = log ? start + MappedEventScanner.CONSOLE_TRANSPORT_LOG.length() : start;
+      boolean cut = jsonStart == limit && !endOfStream;
+      if (!cut) {
+        try {
+          position =
+              jsonStart
+                  + MappedEventScanner.parse(
+                      window,
+                      jsonStart,
+                      limit,
+                      start,
+                      store,
+                      (s, record) -> consumer.accept(record));
+          continue;
+        } catch (IOException e) {
+          if (endOfStream || !MappedEventScanner.isEndOfInput(e)) {
+            throw e;
+          }
+        }
+      }
+      // the event is cut by the end of the buffer, continue from its start
+      position = start;
+      fill();
+    }
+  }
+
+  private int overlap() {
+    return log ? MappedEventScanner.CONSOLE_TRANSPORT_LOG.length() - 1 : 0;
+  }
+
+  /**
+   * Moves the unread bytes to the beginning of the buffer and fills the rest of it, so that an
+   * event cut by the end of the buffer is parsed again only after the buffer has been refilled.
+   */
+  private void fill() throws IOException {
+    if (position == 0 && limit == buffer.length) {
+      buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    } else if (position > 0) {
+      System.arraycopy(buffer, position, buffer, 0, limit - position);
+      limit -= position;
+      position = 0;
+    }
+    while (limit < buffer.length) {
+      int read = inputStream.read(buffer, limit, buffer.length - limit);
+      if (read < 0) {
+        endOfStream = true;
+        return;
+      }
+      limit += read;
+    }
+  }
+}
@@ -0,0 +1,393 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import io.openlineage.utils.RunAligner.ActionRun;
+import io.openlineage.utils.RunAligner.RunAlignment;
+import io.openlineage.utils.RunAligner.RunKey;
+import io.openlineage.utils.RunAligner.RunKeyer;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Diff of two files which reads both of them incrementally and holds only the events of the runs
+ * still open, instead of all the events like {@link Context}. Runs are keyed as they start, like in
+ * {@link RunAligner}, and a pair of runs is compared by {@link DiffEngine} as soon as both of them
+ * have completed, failed or been aborted, then both runs are dropped. The memory needed scales with
+ * the number of concurrent runs and with how far one file is ahead of the other, not with the size
+ * of the files.
+ *
+ * <p>The id of each dropped run is kept to drop its late events, until its parent run, usually the
+ * Spark application, completes. The ids of runs without a parent are kept until the end of the
+ * diff, so they cost memory in the number of such runs.
+ *
+ * <p>Each file is read by its own thread into a bounded queue. The events of both files are
+ * consumed alternately while both queues have some, and a file which is slower to read does not
+ * stall the other one, until the other one is {@link #MAX_LEAD} events ahead. Snapshots and offset
+ * indexes of the files are not used. Events which arrive for a run after it has been compared are
+ * dropped, and the pairs of runs are reported in the order they complete rather than in the order
+ * they start.
+ */
+@Slf4j
+public class StreamingDiff {
+
+  static final int QUEUE_CAPACITY = 1024;
+
+  /** Number of events consumed from a file at most ahead of the other one. */
+  static final int MAX_LEAD = 256;
+
+  private static final long POLL_MILLIS = 10;
+
+  private static final Object END = new Object();
+
+  private final Config config;
+  private final ConfigTable configTable;
+  private final Optional<EventFormat> format;
+  private final Predicate<EventEnvelope> filter;
+
+  /** The largest number of events held at once by the last diff. */
+  @Getter private int maxRetainedEvents;
+
+  /** The number of events still held at the end of the last diff, of runs never finished. */
+  @Getter private int retainedEvents;
+
+  /** The number of ids of dropped runs still kept at the end of the last diff. */
+  @Getter private int keptRunIds;
+
+  private DiffReport report;
+  private String firstJobMismatch;
+  private int comparedJobs;
+  private int comparedRuns;
+
+  public StreamingDiff(Config config, Optional<EventFormat> format) {
+    this(config, format, envelope -> true);
+  }
+
+  /** Creates a diff of the events accepted by the filter. */
+  public StreamingDiff(
+      Config config, Optional<EventFormat> format, Predicate<EventEnvelope> filter) {
+    this.config = config;
+    this.configTable = ConfigTable.of(config);
+    this.format = format;
+    this.filter = filter;
+  }
+
+  /** Runs all the checks of {@link DiffEngine#run()} on the files. */
+  public DiffReport run(Path prevPath, Path nextPath) throws IOException {
+    report = new DiffReport();
+    firstJobMismatch = null;
+    comparedJobs = 0;
+    comparedRuns = 0;
+    retainedEvents = 0;
+    maxRetainedEvents = 0;
+    keptRunIds = 0;
+
+    Side prev = new Side(prevPath, true);
+    Side next = new Side(nextPath, false);
+    prev.reader.start();
+    next.reader.start();
+    try {
+      consume(prev, next);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while comparing the files");
+    } finally {
+      prev.reader.interrupt();
+      next.reader.interrupt();
+    }
+    finish(prev, next);
+    keptRunIds = prev.closedRunIds.size() + next.closedRunIds.size();
+    log.info(
+        "Compared {} pairs of runs, at most {} events were held at once",
+        comparedRuns,
+        maxRetainedEvents);
+    return report;
+  }
+
+  /**
+   * Consumes the events of both files alternately. A file whose queue is empty is skipped after a
+   * short wait, unless the other file is ahead by {@link #MAX_LEAD} events or has ended.
+   */
+  private void consume(Side prev, Side next) throws IOException, InterruptedException {
+    Side side = prev;
+    while (!prev.ended || !next.ended) {
+      Side other = side == prev ? next : prev;
+      if (side.ended || !other.ended && side.consumed - other.consumed >= MAX_LEAD) {
+        side = other;
+        continue;
+      }
+      Object item =
+          other.ended ? side.queue.take() : side.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+      if (item == END) {
+        side.ended = true;
+      } else if (item instanceof Exception) {
+        throw new IOException("Failed to read " + side.path, (Exception) item);
+      } else if (item != null) {
+        side.consumed++;
+        accept((EventRecord) item, side, other);
+      }
+      side = other;
+    }
+  }
+
+  private void accept(EventRecord record, Side side, Side other) {
+    UUID runId = record.getRunId();
+    boolean start = EventType.START.equals(record.getEventType());
+    boolean finish =
+        EventType.COMPLETE.equals(record.getEventType())
+            || EventType.FAIL.equals(record.getEventType())
+            || EventType.ABORT.equals(record.getEventType());
+    if (finish && runId != null) {
+      // late events of the children of a finished run are not expected anymore
+      List<UUID> children = side.closedChildren.remove(runId);
+      if (children != null) {
+        children.forEach(side.closedRunIds::remove);
+      }
+    }
+    if (start) {
+      compareStartedJob(String.valueOf(record.getJobName()), side, other);
+    }
+    UUID parentRunId = record.getParentRunId();
+    if (config.isExcludeApplicationEvents()
+        && parentRunId != null
+        && side.applicationRunIds.add(parentRunId)) {
+      // the application has been held as any other run until its first action
+      OpenRun application = side.runs.get(parentRunId);
+      if (application != null) {
+        evict(side, application);
+      }
+    }
+    if (runId == null
+        || side.applicationRunIds.contains(runId)
+        || side.closedRunIds.contains(runId)) {
+      return;
+    }
+    OpenRun run = side.runs.computeIfAbsent(runId, OpenRun::new);
+    run.records.add(record);
+    if (run.parentRunId == null) {
+      run.parentRunId = parentRunId;
+    }
+    retainedEvents++;
+    maxRetainedEvents = Math.max(maxRetainedEvents, retainedEvents);
+    if (start && run.key == null) {
+      run.key = side.keyer.next(record);
+      run.jobName = record.getJobName();
+      side.keyed.put(run.key, run);
+    }
+    if (finish) {
+      run.finished = true;
+      if (run.key == null) {
+        // never started, not a Spark action
+        evict(side, run);
+      } else {
+        OpenRun counterpart = other.keyed.get(run.key);
+        if (counterpart != null && counterpart.finished) {
+          compare(side.isPrev ? run : counterpart, side.isPrev ? counterpart : run);
+          evict(side, run);
+          evict(other, counterpart);
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares the job names of the started actions in the order they start, holding only the names
+   * which one file is ahead of the other.
+   */
+  private void compareStartedJob(String jobName, Side side, Side other) {
+    if (other.pendingJobs.isEmpty()) {
+      side.pendingJobs.add(jobName);
+      return;
+    }
+    String counterpart = other.pendingJobs.poll();
+    comparedJobs++;
+    if (firstJobMismatch == null && !counterpart.equals(jobName)) {
+      firstJobMismatch =
+          "first at action "
+              + comparedJobs
+              + ", prev "
+              + (side.isPrev ? jobName : counterpart)
+              + ", next "
+              + (side.isPrev ? counterpart : jobName);
+    }
+  }
+
+  private void compare(OpenRun prev, OpenRun next) {
+    SparkActionId sparkActionId =
+        SparkActionId.builder()
+            .jobName(prev.jobName)
+            .prevRunId(prev.runId)
+            .nextRunId(next.runId)
+            .build();
+    Context context = Context.ofRun(prev.records, next.records, config, configTable);
+    new DiffEngine(context).diff(sparkActionId, report);
+    comparedRuns++;
+  }
+
+  private void evict(Side side, OpenRun run) {
+    side.runs.remove(run.runId);
+    side.closedRunIds.add(run.runId);
+    if (run.parentRunId != null) {
+      side.closedChildren.computeIfAbsent(run.parentRunId, p -> new ArrayList<>()).add(run.runId);
+    }
+    if (run.key != null) {
+      side.keyed.remove(run.key);
+    }
+    retainedEvents -= run.records.size();
+  }
+
+  /** Compares the runs left open on both sides and reports the checks of all the events. */
+  private void finish(Side prev, Side next) {
+    for (OpenRun run : new ArrayList<>(prev.keyed.values())) {
+      OpenRun counterpart = next.keyed.get(run.key);
+      if (counterpart != null) {
+        compare(run, counterpart);
+        evict(prev, run);
+        evict(next, counterpart);
+      }
+    }
+
+    if (firstJobMismatch == null && prev.pendingJobs.isEmpty() && next.pendingJobs.isEmpty()) {
+      report.pass("Verify spark actions", "all events");
+    } else {
+      report.fail(
+          "Verify spark actions",
+          "all events",
+          "Job names of the spark actions differ, "
+              + (firstJobMismatch != null
+                  ? firstJobMismatch
+                  : "prev started "
+                      + (comparedJobs + prev.pendingJobs.size())
+                      + ", next "
+                      + (comparedJobs + next.pendingJobs.size())));
+    }
+    // the matched runs have been compared already
+    DiffEngine.checkRunAlignment(
+        new RunAlignment(List.of(), actionRuns(prev), actionRuns(next)), report);
+    if (comparedRuns == 0) {
+      report.fail("Verify spark actions", "all events", "No spark actions to compare");
+    }
+  }
+
+  private static List<ActionRun> actionRuns(Side side) {
+    List<ActionRun> runs = new ArrayList<>();
+    for (OpenRun run : side.keyed.values()) {
+      runs.add(new ActionRun(run.runId, run.jobName));
+    }
+    return runs;
+  }
+
+  private void read(Path path, Consumer<EventRecord> sink) throws IOException {
+    if (StreamEventLoader.isPacked(path)) {
+      new StreamEventLoader().load(path, format, sink);
+      return;
+    }
+    EventFormat eventFormat = format.isPresent() ? format.get() : EventFormatDetector.detect(path);
+    try (MappedEventScanner scanner = new MappedEventScanner(path, eventFormat)) {
+      scanner.read(sink);
+    }
+  }
+
+  /** Events of a file which are being read, and its runs still open. */
+  private final class Side {
+    final Path path;
+    final boolean isPrev;
+    final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    final Thread reader;
+    boolean ended;
+    long consumed;
+
+    final Map<UUID, OpenRun> runs = new HashMap<>();
+
+    /** Started runs by their keys, in the order they started. */
+    final Map<RunKey, OpenRun> keyed = new LinkedHashMap<>();
+
+    final Set<UUID> applicationRunIds = new HashSet<>();
+
+    /** Runs compared or dropped already, whose late events are ignored. */
+    final Set<UUID> closedRunIds = new HashSet<>();
+
+    /** Closed runs by their parent runs still open, dropped from the closed ones with them. */
+    final Map<UUID, List<UUID>> closedChildren = new HashMap<>();
+
+    final RunKeyer keyer = new RunKeyer();
+    final Deque<String> pendingJobs = new ArrayDeque<>();
+
+    Side(Path path, boolean isPrev) {
+      this.path = path;
+      this.isPrev = isPrev;
+      this.reader = new Thread(this::read, "ol-diff-reader-" + path.getFileName());
+      this.reader.setDaemon(true);
+    }
+
+    private void read() {
+      Object last;
+      try {
+        StreamingDiff.this.read(
+            path,
+            record -> {
+              if (filter.test(record.getEnvelope())) {
+                put(record);
+              }
+            });
+        last = END;
+      } catch (CancellationException e) {
+        return;
+      } catch (Exception e) {
+        last = e;
+      }
+      try {
+        put(last);
+      } catch (CancellationException e) {
+        // the diff has been abandoned
+      }
+    }
+
+    /** Waits for room in the queue, the diff is abandoned when the reader is interrupted. */
+    private void put(Object item) {
+      try {
+        queue.put(item);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CancellationException();
+      }
+    }
+  }
+
+  private static final class OpenRun {
+    final UUID runId;
+    final List<EventRecord> records = new ArrayList<>();
+    RunKey key;
+    String jobName;
+    UUID parentRunId;
+    boolean finished;
+
+    OpenRun(UUID runId) {
+      this.runId = runId;
+    }
+  }
+}
@@ -0,0 +1,315 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.JsonTokenId;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+
+/**
+ * Structural content hashes of JSON trees, computed bottom-up while the trees are deserialized, so
+ * that the objects and arrays of facets form a Merkle tree. Equal subtrees have equal hashes, hence
+ * {@link FacetComparator} descends only into the children whose hashes differ, and the children
+ * with equal hashes, like megabytes of an unchanged Spark logical plan, are skipped without being
+ * walked.
+ *
+ * <p>Each hash has 128 bits, two 64-bit lanes computed with different seeds, so equal hashes are
+ * trusted to mean equal trees. Treating the hashes as random, the probability that any two of
+ * {@code n} different subtrees compared share a hash is below {@code n^2 / 2^129}, under 2^-69 for
+ * a billion subtrees, far below the odds of a hardware fault. The hashes are not cryptographic,
+ * trees crafted to collide are not expected from the producers whose events are diffed.
+ *
+ * <p>The hash of an object does not depend on the order of its fields, like {@link Object#equals}
+ * of maps. Hashed objects and arrays must not be modified, their hashes are not updated. Trees are
+ * read iteratively with an explicit stack, hence deeply nested values do not overflow the call
+ * stack.
+ */
+final class StructuralHash {
+
+  private static final long OBJECT_SEED = 0x2545f4914f6cdd1dL;
+  private static final long ARRAY_SEED = 0x9e3779b97f4a7c15L;
+  private static final long NULL_HASH = 0x5851f42d4c957f2dL;
+
+  /** Keys of the two lanes of a hash, mixed into every hash of the lane. */
+  private static final long[] LANE_KEYS = {0L, 0x6a09e667f3bcc909L};
+
+  /** Multipliers of the hashes of array elements and of the characters of strings, per lane. */
+  private static final long[] LANE_MULTIPLIERS = {31L, 0x9e3779b97f4a7c15L};
+
+  /** Object or array with the 128-bit structural hash of its content. */
+  interface Hashed {
+    /** Returns the first lane of the hash. */
+    long structuralHash();
+
+    /** Returns the second lane of the hash. */
+    long structuralHash2();
+  }
+
+  static final class HashedMap extends LinkedHashMap<String, Object> implements Hashed {
+    private static final long serialVersionUID = 1L;
+    private long hash = OBJECT_SEED;
+    private long hash2 = OBJECT_SEED;
+
+    @Override
+    public long structuralHash() {
+      return hash;
+    }
+
+    @Override
+    public long structuralHash2() {
+      return hash2;
+    }
+  }
+
+  static final class HashedList extends ArrayList<Object> implements Hashed {
+    private static final long serialVersionUID = 1L;
+    private long hash = ARRAY_SEED;
+    private long hash2 = ARRAY_SEED;
+
+    @Override
+    public long structuralHash() {
+      return hash;
+    }
+
+    @Override
+    public long structuralHash2() {
+      return hash2;
+    }
+  }
+
+  private StructuralHash() {}
+
+  /** Module deserializing untyped values, like the properties of facets, into hashed trees. */
+  static SimpleModule module() {
+    return new SimpleModule("StructuralHash").addDeserializer(Object.class, new Deserializer());
+  }
+
+  /** Returns whether both values are hashed and their 128-bit hashes are equal. */
+  static boolean equalHashes(Object prev, Object next) {
+    return prev instanceof Hashed
+        && next instanceof Hashed
+        && ((Hashed) prev).structuralHash() == ((Hashed) next).structuralHash()
+        && ((Hashed) prev).structuralHash2() == ((Hashed) next).structuralHash2();
+  }
+
+  /** Returns the first lane of the structural hash of a value of a JSON tree. */
+  static long of(Object value) {
+    return of(value, 0);
+  }
+
+  /** Returns a lane of the structural hash of a value of a JSON tree. */
+  static long of(Object value, int lane) {
+    if (value instanceof Hashed) {
+      return lane == 0 ? ((Hashed) value).structuralHash() : ((Hashed) value).structuralHash2();
+    }
+    if (value == null) {
+      return mix(NULL_HASH, lane);
+    }
+    if (value instanceof String) {
+      return of((String) value, lane);
+    }
+    if (value instanceof Double || value instanceof Float) {
+      return mix(Double.doubleToLongBits(((Number) value).doubleValue()) ^ 0x3L, lane);
+    }
+    if (value instanceof Integer || value instanceof Long) {
+      // Integer and Long are never equal, nor are their hashes
+      return mix(
+          ((Number) value).longValue() ^ (value instanceof Integer ? 0x1L : 0x2L) << 60, lane);
+    }
+    if (value instanceof BigDecimal) {
+      return mix(of(value.toString(), lane) ^ 0x4L, lane);
+    }
+    return mix(of(value.getClass().getName(), lane) * 31 + of(value.toString(), lane), lane);
+  }
+
+  /** FNV-1a in the first lane, a multiplicative hash with a different multiplier in the second. */
+  private static long of(String value, int lane) {
+    long hash = 0xcbf29ce484222325L;
+    if (lane == 0) {
+      for (int i = 0; i < value.length(); i++) {
+        hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+      }
+    } else {
+      for (int i = 0; i < value.length(); i++) {
+        hash = Long.rotateLeft((hash + value.charAt(i)) * LANE_MULTIPLIERS[lane], 29);
+      }
+    }
+    return mix(hash ^ value.length(), lane);
+  }
+
+  /** Hash of a field of an object, summed up independently of the order of the fields. */
+  private static long entryHash(String key, Object value, int lane) {
+    return mix(of(key, lane) * 31 + of(value, lane), lane);
+  }
+
+  /** Finalizer of SplitMix64, spreads the bits of the hash keyed by the lane. */
+  private static long mix(long hash, int lane) {
+    hash ^= LANE_KEYS[lane];
+    hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+    hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+    return hash ^ (hash >>> 31);
+  }
+
+  /**
+   * Deserializes untyped values like the vanilla untyped deserializer of Jackson, with objects and
+   * arrays as {@link HashedMap} and {@link HashedList}.
+   */
+  private static final class Deserializer extends StdDeserializer<Object> {
+    private static final long serialVersionUID = 1L;
+
+    Deserializer() {
+      super(Object.class);
+    }
+
+    @Override
+    public Object deserialize(JsonParser parser, DeserializationContext context)
+        throws IOException {
+      Container container;
+      switch (parser.currentTokenId()) {
+        case JsonTokenId.ID_START_OBJECT:
+          parser.nextToken();
+          container = new Container(new HashedMap());
+          break;
+        case JsonTokenId.ID_FIELD_NAME:
+          container = new Container(new HashedMap());
+          break;
+        case JsonTokenId.ID_START_ARRAY:
+          parser.nextToken();
+          container = new Container(new HashedList());
+          break;
+        default:
+          return readScalar(parser, context);
+      }
+      // the parser is at the next field name or element of the innermost container, or at its end
+      Deque<Container> stack = new ArrayDeque<>();
+      while (true) {
+        Object value;
+        if (container.isEnd(parser)) {
+          value = container.close();
+          container = stack.poll();
+          if (container == null) {
+            return value;
+          }
+        } else {
+          container.readKey(parser);
+          JsonToken token = parser.currentToken();
+          if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            stack.push(container);
+            container =
+                token == JsonToken.START_OBJECT
+                    ? new Container(new HashedMap())
+                    : new Container(new HashedList());
+            parser.nextToken();
+            continue;
+          }
+          value = readScalar(parser, context);
+        }
+        container.add(value);
+        parser.nextToken();
+      }
+    }
+
+    private Object readScalar(JsonParser parser, DeserializationContext context)
+        throws IOException {
+      switch (parser.currentTokenId()) {
+        case JsonTokenId.ID_STRING:
+          return parser.getText();
+        case JsonTokenId.ID_NUMBER_INT:
+          return context.hasSomeOfFeatures(F_MASK_INT_COERCIONS)
+              ? _coerceIntegral(parser, context)
+              : parser.getNumberValue();
+        case JsonTokenId.ID_NUMBER_FLOAT:
+          return context.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+              ? parser.getDecimalValue()
+              : parser.getNumberValue();
+        case JsonTokenId.ID_TRUE:
+          return Boolean.TRUE;
+        case JsonTokenId.ID_FALSE:
+          return Boolean.FALSE;
+        case JsonTokenId.ID_NULL:
+          return null;
+        case JsonTokenId.ID_EMBEDDED_OBJECT:
+          return parser.getEmbeddedObject();
+        default:
+          return context.handleUnexpectedToken(Object.class, parser);
+      }
+    }
+  }
+
+  /** Object or array being read, with both lanes of the hash of the values read so far. */
+  private static final class Container {
+    final HashedMap map;
+    final HashedList list;
+    long hash;
+    long hash2;
+    String key;
+
+    Container(HashedMap map) {
+      this.map = map;
+      this.list = null;
+    }
+
+    Container(HashedList list) {
+      this.map = null;
+      this.list = list;
+      this.hash = ARRAY_SEED;
+      this.hash2 = ARRAY_SEED;
+    }
+
+    boolean isEnd(JsonParser parser) {
+      return map != null
+          ? parser.currentToken() != JsonToken.FIELD_NAME
+          : parser.currentToken() == JsonToken.END_ARRAY;
+    }
+
+    /** Reads the name of the next field of an object, moving the parser to its value. */
+    void readKey(JsonParser parser) throws IOException {
+      if (map != null) {
+        key = parser.currentName();
+        parser.nextToken();
+      }
+    }
+
+    void add(Object value) {
+      if (list != null) {
+        list.add(value);
+        hash = hash * LANE_MULTIPLIERS[0] + of(value, 0);
+        hash2 = hash2 * LANE_MULTIPLIERS[1] + of(value, 1);
+        return;
+      }
+      int size = map.size();
+      Object previous = map.put(key, value);
+      if (map.size() == size) {
+        // the last of duplicate fields wins
+        hash -= entryHash(key, previous, 0);
+        hash2 -= entryHash(key, previous, 1);
+      }
+      hash += entryHash(key, value, 0);
+      hash2 += entryHash(key, value, 1);
+    }
+
+    Object close() {
+      if (list != null) {
+        list.hash = mix(hash + list.size(), 0);
+        list.hash2 = mix(hash2 + list.size(), 1);
+        return list;
+      }
+      map.hash = mix(OBJECT_SEED + hash + map.size(), 0);
+      map.hash2 = mix(OBJECT_SEED + hash2 + map.size(), 1);
+      return map;
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the regular files of a tar archive one after another, like {@link
+ * java.util.zip.ZipInputStream} reads zip entries. Supports ustar archives with GNU and pax
+ * extensions for long names and sizes above 8 GB. Other entries, like directories and links, are
+ * skipped.
+ */
+class TarInputStream extends InputStream {
+
+  static final int BLOCK_SIZE = 512;
+  static final int MAGIC_OFFSET = 257;
+
+  private static final byte[] MAGIC = "ustar".getBytes(StandardCharsets.US_ASCII);
+
+  private final InputStream inputStream;
+  private final byte[] header = new byte[BLOCK_SIZE];
+  private long remaining;
+  private long padding;
+
+  TarInputStream(InputStream inputStream) {
+    this.inputStream = inputStream;
+  }
+
+  /** Checks if the first block of a stream is a ustar header. */
+  static boolean isTar(byte[] block, int length) {
+    if (length < MAGIC_OFFSET + MAGIC.length) {
+      return false;
+    }
+    for (int i = 0; i < MAGIC.length; i++) {
+      if (block[MAGIC_OFFSET + i] != MAGIC[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Skips the rest of the current entry and positions the stream at the beginning of the next
+   * regular file.
+   *
+   * @return the name of the file, or null at the end of the archive
+   */
+  String getNextEntry() throws IOException {
+    skipFully(remaining + padding);
+    remaining = 0;
+    padding = 0;
+    String longName = null;
+    Long longSize = null;
+    while (readBlock()) {
+      long size = longSize != null ? longSize : number(124, 12);
+      String name = longName != null ? longName : name();
+      longName = null;
+      longSize = null;
+      byte type = header[156];
+      if (type == '0' || type == 0 || type == '7') {
+        remaining = size;
+        padding = padding(size);
+        return name;
+      }
+      if (type == 'L') {
+        longName = trim(readContent(size));
+      } else if (type == 'x') {
+        String[] pax = paxHeaders(readContent(size));
+        longName = pax[0];
+        longSize = pax[1] == null ? null : Long.parseLong(pax[1]);
+      } else {
+        skipFully(size + padding(size));
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (remaining == 0) {
+      return -1;
+    }
+    int b = inputStream.read();
+    if (b < 0) {
+      throw new EOFException("Tar entry is truncated");
+    }
+    remaining--;
+    return b;
+  }
+
+  @Override
+  public int read(byte[] bytes, int offset, int length) throws IOException {
+    if (remaining == 0) {
+      return -1;
+    }
+    int read = inputStream.read(bytes, offset, (int) Math.min(length, remaining));
+    if (read < 0) {
+      throw new EOFException("Tar entry is truncated");
+    }
+    remaining -= read;
+    return read;
+  }
+
+  @Override
+  public void close() throws IOException {
+    inputStream.close();
+  }
+
+  /** Reads the next header, returns false at the end of the archive. */
+  private boolean readBlock() throws IOException {
+    if (readFully(header, header.length) < header.length) {
+      return false;
+    }
+    for (byte b : header) {
+      if (b != 0) {
+        return true;
+      }
+    }
+    // an empty block ends the archive
+    return false;
+  }
+
+  private String name() {
+    String name = trim(header, 0, 100);
+    if (isTar(header, header.length)) {
+      String prefix = trim(header, 345, 155);
+      if (!prefix.isEmpty()) {
+        return prefix + "/" + name;
+      }
+    }
+    return name;
+  }
+
+  /** Parses an octal number, or a big-endian binary one when the highest bit is set. */
+  private long number(int offset, int length) {
+    if ((header[offset] & 0x80) != 0) {
+      long value = header[offset] & 0x7f;
+      for (int i = offset + 1; i < offset + length; i++) {
+        value = (value << 8) | (header[i] & 0xff);
+      }
+      return value;
+    }
+    long value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      byte b = header[i];
+      if (b >= '0' && b <= '7') {
+        value = (value << 3) | (b - '0');
+      } else if (b != ' ' || value > 0) {
+        break;
+      }
+    }
+    return value;
+  }
+
+  private byte[] readContent(long size) throws IOException {
+    byte[] content = new byte[Math.toIntExact(size)];
+    if (readFully(content, content.length) < content.length) {
+      throw new EOFException("Tar header is truncated");
+    }
+    skipFully(padding(size));
+    return content;
+  }
+
+  /** Extracts the path and the size from pax records like {@code 21 size=8589934592\n}. */
+  private static String[] paxHeaders(byte[] content) {
+    String[] values = new String[2];
+    String records = new String(content, StandardCharsets.UTF_8);
+    int position = 0;
+    while (position < records.length()) {
+      int space = records.indexOf(' ', position);
+      if (space < 0) {
+        break;
+      }
+      int length = Integer.parseInt(records.substring(position, space));
+      String record = records.substring(space + 1, position + length - 1);
+      int equals = record.indexOf('=');
+      if (record.startsWith("path=")) {
+        values[0] = record.substring(equals + 1);
+      } else if (record.startsWith("size=")) {
+        values[1] = record.substring(equals + 1);
+      }
+      position += length;
+    }
+    return values;
+  }
+
+  private static long padding(long size) {
+    return (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+  }
+
+  private static String trim(byte[] bytes) {
+    return trim(bytes, 0, bytes.length);
+  }
+
+  private static String trim(byte[] bytes, int offset, int length) {
+    int end = offset;
+    while (end < offset + length && bytes[end] != 0) {
+      end++;
+    }
+    return new String(bytes, offset, end - offset, StandardCharsets.UTF_8);
+  }
+
+  private int readFully(byte[] bytes, int length) throws IOException {
+    int total = 0;
+    while (total < length) {
+      int read = inputStream.read(bytes, total, length - total);
+      if (read < 0) {
+        break;
+      }
+      total += read;
+    }
+    return total;
+  }
+
+  private void skipFully(long bytes) throws IOException {
+    byte[] buffer = null;
+    while (bytes > 0) {
+      long skipped = inputStream.skip(bytes);
+      if (skipped <= 0) {
+        if (buffer == null) {
+          buffer = new byte[BLOCK_SIZE * 16];
+        }
+        skipped = inputStream.read(buffer, 0, (int) Math.min(buffer.length, bytes));
+        if (skipped < 0) {
+          throw new EOFException("Tar archive is truncated");
+        }
+      }
+      bytes -= skipped;
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.openlineage.utils.BatchDiff.Pair;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class BatchDiffTest {
+
+  static final Path EXAMPLES = Path.of("examples").toAbsolutePath();
+
+  @TempDir Path tempDir;
+
+  ForkJoinPool pool = new ForkJoinPool(2);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void testReadManifest() throws IOException {
+    Path manifest =
+        write(
+            "# prev next config\n"
+                + "\n"
+                + "  a/prev.txt   a/next.txt\n"
+                + "b/prev.txt\tb/next.txt ../config.yml\n");
+
+    assertThat(BatchDiff.readManifest(manifest))
+        .containsExactly(
+            new Pair(path("a/prev.txt"), path("a/next.txt"), ""),
+            new Pair(
+                path("b/prev.txt"),
+                path("b/next.txt"),
+                tempDir.resolve("../config.yml").normalize().toString()));
+
+    assertThatThrownBy(() -> BatchDiff.readManifest(write("prev.txt\n")))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("line 1");
+  }
+
+  @Test
+  void testEventsLoadedOnBatchPool() {
+    AtomicInteger threads = new AtomicInteger();
+    ForkJoinPool batchPool =
+        new ForkJoinPool(
+            1,
+            p -> {
+              threads.incrementAndGet();
+              return ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            },
+            null,
+            false);
+    try {
+      Context context =
+          Context.createContext(
+              EXAMPLES.resolve("success/prev.txt").toString(),
+              EXAMPLES.resolve("success/next.txt").toString(),
+              new Config(),
+              Optional.empty(),
+              batchPool);
+
+      assertThat(context.getPrevRecords()).isNotEmpty();
+      // the previous events are loaded in the background on the pool given
+      assertThat(threads.get()).isEqualTo(1);
+    } finally {
+      batchPool.shutdown();
+    }
+  }
+
+  @Test
+  void testReportInManifestOrder() {
+    List<Pair> pairs =
+        List.of(
+            example("success", "config.yml"),
+            example("failure", ""),
+            new Pair(path("missing.txt"), path("missing.txt"), ""),
+            example("success", "config.yml"));
+
+    BatchReport report = new BatchDiff(pool, Optional.empty()).run(pairs);
+
+    assertThat(report.getOutcomes().stream().map(BatchReport.Outcome::getPair))
+        .containsExactlyElementsOf(pairs);
+    assertThat(
+            report.getOutcomes().stream()
+                .map(o -> o.getError() != null ? "error" : o.isFailed() ? "failed" : "passed")
+                .collect(Collectors.toList()))
+        .containsExactly("passed", "failed", "error", "passed");
+    assertThat(report.getFailed()).isEqualTo(1);
+    assertThat(report.getErrors()).isEqualTo(1);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    report.print(new PrintStream(bytes, true, StandardCharsets.UTF_8), false);
+    assertThat(bytes.toString(StandardCharsets.UTF_8))
+        .contains("  FAILED Verify job facet jobType", "4 pairs, 1 failed, 1 errors");
+  }
+
+  @Test
+  void testCommandLineExitCodes() {
+    PrintStream out = new PrintStream(new ByteArrayOutputStream());
+    String success = line(example("success", "config.yml"));
+    Path report = tempDir.resolve("report.txt");
+
+    assertThat(OlDiff.run(manifestArgs(success + success, report), out, out))
+        .isEqualTo(OlDiff.SUCCESS);
+    assertThat(report).content().contains("2 pairs, 0 failed, 0 errors");
+    assertThat(OlDiff.run(manifestArgs(success + line(example("failure", "")), report), out, out))
+        .isEqualTo(OlDiff.FAILURE);
+    assertThat(OlDiff.run(manifestArgs(success + "missing.txt missing.txt\n", report), out, out))
+        .isEqualTo(OlDiff.ERROR);
+  }
+
+  private String[] manifestArgs(String manifest, Path report) {
+    return new String[] {
+      "--manifest", write(manifest).toString(),
+      "--report", report.toString(),
+      "--parallelism", "2"
+    };
+  }
+
+  private static String line(Pair pair) {
+    return String.join(" ", pair.getPrevPath(), pair.getNextPath(), pair.getConfigYaml()) + "\n";
+  }
+
+  private static Pair example(String name, String config) {
+    return new Pair(
+        EXAMPLES.resolve(name + "/prev.txt").toString(),
+        EXAMPLES.resolve(name + "/next.txt").toString(),
+        config.isEmpty() ? "" : EXAMPLES.resolve("../" + config).normalize().toString());
+  }
+
+  private String path(String relative) {
+    return tempDir.resolve(relative).toString();
+  }
+
+  @SneakyThrows
+  private Path write(String content) {
+    return Files.writeString(tempDir.resolve("manifest.txt"), content);
+  }
+}
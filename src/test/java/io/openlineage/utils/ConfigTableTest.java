@@ -0,0 +1,62 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.openlineage.utils.Config.FacetConfig;
+import io.openlineage.utils.FacetDecoder.Kind;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("internal-test")
+public class ConfigTableTest {
+
+  @Test
+  void testEverySectionIsLookedUpByKind() {
+    Config config = new Config();
+    config.setRun(Map.of("spark_properties", ignoring("properties.spark.master")));
+    config.setJob(Map.of("someFacet", disabled()));
+    config.setDataset(Map.of("version", ignoring("datasetVersion")));
+    config.setInputDataset(Map.of("someFacet", disabled()));
+    config.setOutputDataset(Map.of("someFacet", disabled()));
+
+    ConfigTable table = ConfigTable.of(config);
+
+    assertThat(table.isDisabled(Kind.JOB, "someFacet")).isTrue();
+    assertThat(table.isDisabled(Kind.RUN, "someFacet")).isFalse();
+    assertThat(table.isDisabled(Kind.INPUT_DATASET, "someFacet")).isTrue();
+    assertThat(table.isDisabled(Kind.OUTPUT_DATASET, "someFacet")).isTrue();
+    assertThat(table.getIgnoredPaths(Kind.RUN, "spark_properties").isIgnored("properties"))
+        .isFalse();
+    assertThat(table.getIgnoredPaths(Kind.DATASET, "version").isIgnored("datasetVersion")).isTrue();
+    assertThat(table.getIgnoredPaths(Kind.OUTPUT_DATASET, "version")).isSameAs(IgnoredPaths.NONE);
+  }
+
+  @Test
+  void testTableDoesNotChangeWithConfig() {
+    Config config = new Config();
+    ConfigTable table = ConfigTable.of(config);
+
+    config.setRun(Map.of("someFacet", disabled()));
+
+    assertThat(table.isDisabled(Kind.RUN, "someFacet")).isFalse();
+    assertThat(ConfigTable.of(config).isDisabled(Kind.RUN, "someFacet")).isTrue();
+  }
+
+  private static FacetConfig disabled() {
+    FacetConfig facetConfig = new FacetConfig();
+    facetConfig.setDisabled(true);
+    return facetConfig;
+  }
+
+  private static FacetConfig ignoring(String... properties) {
+    FacetConfig facetConfig = new FacetConfig();
+    facetConfig.setIgnoredProperties(properties);
+    return facetConfig;
+  }
+}
@@ -3,6 +3,7 @@ package io.openlineage.utils;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.openlineage.client.OpenLineage;
+import io.openlineage.client.OpenLineage.InputDataset;
 import io.openlineage.client.utils.DatasetIdentifier;
 import java.net.URI;
 import java.util.Collections;
@@ -105,4 +106,37 @@ public class DatasetUtilsTest {
 
     assertThat(DatasetUtils.areSameName(d1, d2)).isFalse();
   }
+
+  @Test
+  void testIdentityIndexMergesSymlinkedNames() {
+    InputDataset d1 = datasetWithSymlink("i1", "symlink-name1");
+    InputDataset d2 = datasetWithSymlink("i2", "symlink-name1");
+    InputDataset d3 = datasetWithSymlink("i3", "symlink-name2");
+    InputDataset d4 = datasetWithSymlink("i3", "symlink-name3");
+    InputDataset d5 = datasetWithSymlink("i5", "symlink-name3");
+
+    DatasetIdentityIndex index = new DatasetIdentityIndex();
+    assertThat(index.isSameDataset(d1, d2)).isTrue();
+    assertThat(index.isSameDataset(d1, d3)).isFalse();
+    // symlinks are merged transitively: symlink-name2 <- i3 -> symlink-name3 <- i5
+    index.classOf(d4);
+    assertThat(index.isSameDataset(d3, d5)).isTrue();
+    assertThat(DatasetUtils.areSameName(d3, d5)).isFalse();
+    assertThat(index.classOf(DatasetUtils.toDatasetIdentifier(d2))).isEqualTo(index.classOf(d1));
+  }
+
+  private InputDataset datasetWithSymlink(String name, String symlinkName) {
+    return openLineage.newInputDataset(
+        "namespace",
+        name,
+        openLineage
+            .newDatasetFacetsBuilder()
+            .symlinks(
+                openLineage.newSymlinksDatasetFacet(
+                    Collections.singletonList(
+                        openLineage.newSymlinksDatasetFacetIdentifiers(
+                            "symlink-namespace", symlinkName, "table"))))
+            .build(),
+        null);
+  }
 }
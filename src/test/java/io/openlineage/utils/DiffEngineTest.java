@@ -0,0 +1,192 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.openlineage.client.OpenLineage;
+import io.openlineage.client.OpenLineage.InputDataset;
+import io.openlineage.client.OpenLineage.RunEvent;
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import io.openlineage.client.OpenLineage.RunFacet;
+import io.openlineage.utils.Config.FacetConfig;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("internal-test")
+public class DiffEngineTest {
+
+  OpenLineage openLineage = new OpenLineage(URI.create("http://localhost:5000"));
+  List<RunEvent> prevEvents = new ArrayList<>();
+  List<RunEvent> nextEvents = new ArrayList<>();
+  Config config = new Config();
+
+  @Test
+  void testMatchingEventsPass() {
+    prevEvents.add(event(Map.of("a", 1, "b", "x")));
+    nextEvents.add(event(Map.of("a", 1, "b", "x", "c", true)));
+
+    DiffReport report = new DiffEngine(new Context(prevEvents, nextEvents, config)).run();
+
+    assertThat(report.isSuccessful()).isTrue();
+    assertThat(report.getResults())
+        .extracting(DiffReport.Result::getCheck)
+        .contains("Verify spark actions", "Verify job name", "Verify run facet custom");
+  }
+
+  @Test
+  void testDifferentPropertyFails() {
+    prevEvents.add(event(Map.of("a", 1, "b", "x")));
+    nextEvents.add(event(Map.of("a", 2)));
+
+    DiffReport report = new DiffEngine(new Context(prevEvents, nextEvents, config)).run();
+
+    assertThat(report.getResults())
+        .filteredOn(r -> !r.isPassed())
+        .singleElement()
+        .extracting(DiffReport.Result::getMessage)
+        .asString()
+        .contains("different a: 1 <> 2", "missing b");
+  }
+
+  @Test
+  void testIgnoredPropertiesAndDisabledFacets() {
+    FacetConfig ignored = new FacetConfig();
+    ignored.setIgnoredProperties(new String[] {"a", "b"});
+    config.setRun(Map.of("custom", ignored));
+    prevEvents.add(event(Map.of("a", 1, "b", "x")));
+    nextEvents.add(event(Map.of("a", 2)));
+
+    assertThat(new DiffEngine(new Context(prevEvents, nextEvents, config)).run().isSuccessful())
+        .isTrue();
+
+    FacetConfig disabled = new FacetConfig();
+    disabled.setDisabled(true);
+    config.setRun(Map.of("custom", disabled));
+    nextEvents.set(0, event(Collections.emptyMap()));
+
+    assertThat(new DiffEngine(new Context(prevEvents, nextEvents, config)).run().isSuccessful())
+        .isTrue();
+  }
+
+  @Test
+  void testSymlinksOfOtherRunsDoNotMergeDatasets() {
+    // the symlink of b is seen before a is reconciled
+    prevEvents.add(run("b", input("t", "u")));
+    nextEvents.add(run("b", input("t", "u")));
+    prevEvents.add(run("a", input("u", null), input("t", null)));
+    nextEvents.add(run("a", input("u", null)));
+
+    DiffReport report = new DiffEngine(new Context(prevEvents, nextEvents, config)).run();
+
+    assertThat(report.getResults())
+        .filteredOn(r -> !r.isPassed())
+        .singleElement()
+        .satisfies(
+            r -> {
+              assertThat(r.getCheck()).isEqualTo("Verify input dataset names and namespaces");
+              assertThat(r.getSubject()).startsWith("Job a,");
+              assertThat(r.getMessage()).contains("ns:t");
+            });
+  }
+
+  @Test
+  void testCommandLineExitCodes() {
+    PrintStream out = new PrintStream(new ByteArrayOutputStream());
+    assertThat(
+            OlDiff.run(
+                new String[] {
+                  "--prev", "examples/success/prev.txt",
+                  "--next", "examples/success/next.txt",
+                  "--config", "config.yml"
+                },
+                out,
+                out))
+        .isEqualTo(OlDiff.SUCCESS);
+    assertThat(
+            OlDiff.run(
+                new String[] {
+                  "--prev", "examples/failure/prev.txt", "--next", "examples/failure/next.txt"
+                },
+                out,
+                out))
+        .isEqualTo(OlDiff.FAILURE);
+    assertThat(
+            OlDiff.run(
+                new String[] {
+                  "--prev", "examples/success/prev.txt",
+                  "--next", "examples/success/next.txt",
+                  "--config", "config.yml",
+                  "--streaming"
+                },
+                out,
+                out))
+        .isEqualTo(OlDiff.SUCCESS);
+    assertThat(OlDiff.run(new String[] {"--prev", "prev.txt"}, out, out)).isEqualTo(OlDiff.ERROR);
+    assertThat(
+            OlDiff.run(
+                new String[] {
+                  "--prev", "examples/success/prev.txt",
+                  "--next", "examples/success/next.txt",
+                  "--config", "nope.yml"
+                },
+                out,
+                out))
+        .isEqualTo(OlDiff.ERROR);
+  }
+
+  private RunEvent run(String jobName, InputDataset... inputs) {
+    return openLineage
+        .newRunEventBuilder()
+        .eventType(EventType.START)
+        .run(openLineage.newRunBuilder().runId(UUID.randomUUID()).build())
+        .job(openLineage.newJobBuilder().namespace("namespace").name(jobName).build())
+        .inputs(List.of(inputs))
+        .build();
+  }
+
+  /** Input of the namespace {@code ns}, optionally with a symlink to another name. */
+  private InputDataset input(String name, String symlink) {
+    return openLineage.newInputDataset(
+        "ns",
+        name,
+        symlink == null
+            ? null
+            : openLineage
+                .newDatasetFacetsBuilder()
+                .symlinks(
+                    openLineage.newSymlinksDatasetFacet(
+                        List.of(
+                            openLineage.newSymlinksDatasetFacetIdentifiers(
+                                "ns", symlink, "table"))))
+                .build(),
+        null);
+  }
+
+  private RunEvent event(Map<String, Object> properties) {
+    RunFacet facet = openLineage.newRunFacet();
+    facet.getAdditionalProperties().putAll(properties);
+    return openLineage
+        .newRunEventBuilder()
+        .eventType(EventType.START)
+        .run(
+            openLineage
+                .newRunBuilder()
+                .runId(UUID.randomUUID())
+                .facets(openLineage.newRunFacetsBuilder().put("custom", facet).build())
+                .build())
+        .job(openLineage.newJobBuilder().namespace("namespace").name("job").build())
+        .build();
+  }
+}
@@ -0,0 +1,217 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import io.openlineage.client.utils.DatasetIdentifier.Symlink;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class EventFileReaderTest {
+
+  private static final String RUN_ID_1 = "01931f88-4592-74da-b64b-d20e01208e09";
+  private static final String RUN_ID_2 = "01931f88-4a68-7a2d-9099-0d635d863e2a";
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testJsonEventPerLine() {
+    Path file = write("json.txt", event(RUN_ID_1) + "\n" + event(RUN_ID_2) + "\n");
+
+    assertThat(runIds(read(file))).containsExactly(RUN_ID_1, RUN_ID_2);
+  }
+
+  @Test
+  void testConcatenatedJsonValues() {
+    Path file = write("json.txt", "  " + event(RUN_ID_1) + event(RUN_ID_2));
+
+    assertThat(runIds(read(file))).containsExactly(RUN_ID_1, RUN_ID_2);
+  }
+
+  @Test
+  @SneakyThrows
+  void testJsonEventReaderSlicesEvents() {
+    String first = event(RUN_ID_1);
+    String second = event(RUN_ID_2);
+    List<EventRecord> records = new ArrayList<>();
+    try (JsonEventReader reader =
+        new JsonEventReader(
+            new ByteArrayInputStream((first + "\n  " + second).getBytes(StandardCharsets.UTF_8)))) {
+      reader.read(records::add);
+    }
+
+    assertThat(runIds(records)).containsExactly(RUN_ID_1, RUN_ID_2);
+    assertThat(new String(((RawEventRecord) records.get(1)).getJson(), StandardCharsets.UTF_8))
+        .isEqualTo(second);
+  }
+
+  @Test
+  void testEventsFromLogs() {
+    String multilineEvent = event(RUN_ID_2).replace(",\"run\"", ",\n\"run\"");
+    Path file =
+        write(
+            "log.txt",
+            "25/03/14 10:02:19 INFO SparkContext: Running Spark\n"
+                + "25/03/14 10:02:19 INFO ConsoleTransport: "
+                + event(RUN_ID_1)
+                + "\n"
+                + "25/03/14 10:02:19 INFO DAGScheduler: Job 3 finished\n"
+                + "25/03/14 10:02:19 INFO ConsoleTransport: "
+                + multilineEvent
+                + "\n");
+
+    assertThat(runIds(read(file))).containsExactly(RUN_ID_1, RUN_ID_2);
+  }
+
+  @Test
+  void testEventsFromLogsWithIsoTimestamps() {
+    String multilineEvent = event(RUN_ID_1).replace(",\"run\"", ",\n\"run\"");
+    Path file =
+        write(
+            "log.txt",
+            "2025-03-14 10:02:19,123 INFO ConsoleTransport: "
+                + multilineEvent
+                + "\n"
+                + "2025-03-14 10:02:20,456 INFO DAGScheduler: Job 3 finished\n");
+
+    assertThat(runIds(read(file))).containsExactly(RUN_ID_1);
+  }
+
+  @Test
+  @SneakyThrows
+  void testDetectFormat() {
+    assertThat(EventFormatDetector.detect(write("a.txt", "\n " + event(RUN_ID_1))))
+        .isEqualTo(EventFormat.JSON);
+    assertThat(EventFormatDetector.detect(write("b.txt", "25/03/14 10:02:19 INFO Spark\n")))
+        .isEqualTo(EventFormat.SPARK_LOG);
+    assertThat(EventFormatDetector.detect(write("c.txt", "[2025-03-14T10:02:19Z] INFO x\n")))
+        .isEqualTo(EventFormat.BRACKETED_LOG);
+    assertThat(EventFormat.fromName("iso-log")).contains(EventFormat.ISO_LOG);
+    assertThat(EventFormat.fromName("")).isEmpty();
+  }
+
+  @Test
+  @SneakyThrows
+  void testEventsCutByMappedWindows() {
+    StringBuilder log = new StringBuilder();
+    List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      String runId = String.format("01931f88-4592-74da-b64b-%012d", i);
+      expected.add(runId);
+      log.append("25/03/14 10:02:19 INFO DAGScheduler: Job ").append(i).append(" finished\n");
+      log.append("25/03/14 10:02:19 INFO ConsoleTransport: ").append(event(runId)).append("\n");
+    }
+    Path file = write("log.txt", log.toString());
+
+    List<EventRecord> events = new ArrayList<>();
+    try (MappedEventScanner scanner = new MappedEventScanner(file, EventFormat.SPARK_LOG, 500)) {
+      scanner.read(events::add);
+    }
+    assertThat(runIds(events)).isEqualTo(expected);
+  }
+
+  @Test
+  void testEventRecordDecodesOnDemand() {
+    String parentRunId = "01931f88-0000-7000-8000-000000000000";
+    String json =
+        "{\"eventType\":\"START\",\"inputs\":[{\"namespace\":\"ns\",\"name\":\"table\"}],"
+            + "\"run\":{\"runId\":\""
+            + RUN_ID_1
+            + "\",\"facets\":{\"custom\":{\"key\":\"value\"},\"parent\":{\"run\":{\"runId\":\""
+            + parentRunId
+            + "\"},\"job\":{\"namespace\":\"default\",\"name\":\"app\"}}}},"
+            + "\"job\":{\"namespace\":\"default\",\"name\":\"job\"}}";
+    List<EventRecord> records = read(write("json.txt", json));
+
+    assertThat(records).hasSize(1);
+    EventRecord record = records.get(0);
+    assertThat(record.getEventType()).isEqualTo(EventType.START);
+    assertThat(record.getJobName()).isEqualTo("job");
+    assertThat(record.getParentRunId()).hasToString(parentRunId);
+    assertThat(record.getEnvelope().getParentJobName()).isEqualTo("app");
+    assertThat(record.getRunFacets()).containsOnlyKeys("custom", "parent");
+    assertThat(record.getRunFacets().get("custom").getAdditionalProperties())
+        .containsEntry("key", "value");
+    assertThat(record.getJobFacets()).isEmpty();
+    assertThat(record.getInputs()).extracting("name").containsExactly("table");
+    assertThat(record.getOutputs()).isEmpty();
+    assertThat(record.toRunEvent().getRun().getRunId()).hasToString(RUN_ID_1);
+  }
+
+  @Test
+  void testDatasetsDecodeLikeDeserializedDatasets() {
+    String json =
+        "{\"eventType\":\"START\",\"run\":{\"runId\":\""
+            + RUN_ID_1
+            + "\"},\"job\":{\"namespace\":\"default\",\"name\":\"job\"},"
+            + "\"inputs\":[{\"namespace\":\"ns\",\"name\":\"table\",\"facets\":{"
+            + "\"symlinks\":{\"identifiers\":[{\"namespace\":\"hive\",\"name\":\"db.t\","
+            + "\"type\":\"TABLE\"}]},\"custom\":{\"key\":[1,2]}},"
+            + "\"inputFacets\":{\"stats\":{\"rows\":3}}}],"
+            + "\"outputs\":[{\"namespace\":\"ns\",\"name\":\"out\",\"facets\":null}]}";
+    EventRecord record = read(write("json.txt", json)).get(0);
+    EventRecord parsed = EventRecord.of(record.toRunEvent());
+
+    DatasetRecord<InputDatasetFacet> input = record.getInputDatasets().get(0);
+    DatasetRecord<InputDatasetFacet> parsedInput = parsed.getInputDatasets().get(0);
+    assertThat(input.getName()).isEqualTo("table");
+    assertThat(input.getIdentifier().getSymlinks())
+        .isEqualTo(parsedInput.getIdentifier().getSymlinks())
+        .extracting(Symlink::getName)
+        .containsExactly("db.t");
+    assertThat(input.getFacets()).containsOnlyKeys(parsedInput.getFacets().keySet());
+    assertThat(input.getFacets().get("custom").getAdditionalProperties())
+        .isEqualTo(parsedInput.getFacets().get("custom").getAdditionalProperties());
+    assertThat(input.getIoFacets().get("stats").getAdditionalProperties())
+        .isEqualTo(parsedInput.getIoFacets().get("stats").getAdditionalProperties())
+        .containsEntry("rows", 3);
+    assertThat(record.getOutputDatasets())
+        .singleElement()
+        .matches(output -> output.getName().equals("out") && output.getFacets().isEmpty());
+  }
+
+  @Test
+  void testEmptyFile() {
+    assertThat(read(write("empty.txt", "\n"))).isEmpty();
+  }
+
+  private static String event(String runId) {
+    return "{\"eventTime\":\"2024-11-12T08:40:43.714Z\",\"eventType\":\"START\","
+        + "\"run\":{\"runId\":\""
+        + runId
+        + "\"},\"job\":{\"namespace\":\"default\",\"name\":\"job\"}}";
+  }
+
+  @SneakyThrows
+  private Path write(String name, String content) {
+    return Files.writeString(tempDir.resolve(name), content);
+  }
+
+  @SneakyThrows
+  private static List<EventRecord> read(Path file) {
+    List<EventRecord> events = new ArrayList<>();
+    new EventFileReader(file).read(events::add);
+    return events;
+  }
+
+  private static List<String> runIds(List<EventRecord> events) {
+    List<String> runIds = new ArrayList<>();
+    events.forEach(e -> runIds.add(e.getRunId().toString()));
+    return runIds;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class EventOffsetIndexTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testReadAllEventsWithIndex() throws IOException {
+    Path log = write(log(20));
+    List<EventRecord> scanned = index(log);
+
+    List<EventRecord> indexed =
+        EventOffsetIndex.read(log, Optional.of(EventFormat.SPARK_LOG), e -> true).get();
+
+    assertThat(indexed).hasSameSizeAs(scanned);
+    for (int i = 0; i < scanned.size(); i++) {
+      assertThat(indexed.get(i).getEnvelope()).isEqualTo(scanned.get(i).getEnvelope());
+      assertThat(((RawEventRecord) indexed.get(i)).getJson())
+          .isEqualTo(((RawEventRecord) scanned.get(i)).getJson());
+    }
+  }
+
+  @Test
+  void testSelectedJobIsReadWithoutTheRestOfTheLog() throws IOException {
+    Path log = write(log(20));
+    index(log);
+    FileTime modified = Files.getLastModifiedTime(log);
+    // events of the other jobs are not read, so damaging them does not matter
+    String damaged = log(20).replace("{\"eventTime\"", "[\"eventTime\"");
+    Files.writeString(log, damaged.replaceAll("\\[(\"eventTime[^\\n]*\"job1\")", "{$1"));
+    Files.setLastModifiedTime(log, modified);
+
+    List<EventRecord> records =
+        Context.getEventRecords(log.toString(), Optional.empty(), e -> e.isOfJob("job1"));
+
+    assertThat(records.stream().map(EventRecord::getJobName).collect(Collectors.toList()))
+        .hasSize(5)
+        .containsOnly("job1");
+    assertThat(records.get(0).getRunFacets()).isEmpty();
+  }
+
+  @Test
+  void testStaleIndexIsIgnored() throws IOException {
+    Path log = write(log(20));
+    index(log);
+    assertThat(EventOffsetIndex.read(log, Optional.empty(), e -> true)).isPresent();
+
+    assertThat(EventOffsetIndex.read(log, Optional.of(EventFormat.ISO_LOG), e -> true)).isEmpty();
+
+    Files.setLastModifiedTime(log, FileTime.fromMillis(0));
+    assertThat(EventOffsetIndex.read(log, Optional.empty(), e -> true)).isEmpty();
+
+    write(log(21));
+    assertThat(EventOffsetIndex.read(log, Optional.empty(), e -> true)).isEmpty();
+    assertThat(Context.getEventRecords(log.toString(), Optional.empty())).hasSize(21);
+  }
+
+  @Test
+  void testDamagedIndexIsIgnored() throws IOException {
+    Path log = write(log(20));
+    index(log);
+    Path index = EventOffsetIndex.indexPath(log);
+    byte[] content = Files.readAllBytes(index);
+
+    // count of entries overflowing the offset of the string pool
+    assertDamagedIgnored(log, index, content, 28, Integer.MAX_VALUE);
+    // length of the first event larger than the log
+    assertDamagedIgnored(log, index, content, 40, Integer.MAX_VALUE);
+    // unknown type of the first event
+    assertDamagedIgnored(log, index, content, 44, 100 << 24);
+    // offset of its job name past the string pool
+    assertDamagedIgnored(log, index, content, 84, 1 << 30);
+  }
+
+  private static void assertDamagedIgnored(
+      Path log, Path index, byte[] content, int offset, int value) throws IOException {
+    byte[] damaged = content.clone();
+    ByteBuffer.wrap(damaged).putInt(offset, value);
+    Files.write(index, damaged);
+
+    assertThat(EventOffsetIndex.read(log, Optional.empty(), e -> true)).isEmpty();
+    assertThat(Context.getEventRecords(log.toString(), Optional.empty())).hasSize(20);
+  }
+
+  /** Scans the log and writes its index, like a scan of a large log does. */
+  private static List<EventRecord> index(Path log) throws IOException {
+    List<EventRecord> records = new ArrayList<>();
+    LongStream.Builder starts = LongStream.builder();
+    new ParallelEventLoader()
+        .load(
+            log,
+            EventFormat.SPARK_LOG,
+            (start, record) -> {
+              records.add(record);
+              starts.add(start);
+            });
+    EventOffsetIndex.write(log, EventFormat.SPARK_LOG, records, starts.build().toArray());
+    return records;
+  }
+
+  private static String log(int count) {
+    StringBuilder log = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      log.append("25/03/14 10:02:19 INFO DAGScheduler: Job ").append(i).append(" finished\n");
+      log.append("25/03/14 10:02:19 INFO ConsoleTransport: ")
+          .append("{\"eventTime\":\"2024-11-12T08:40:43.714Z\",\"eventType\":\"START\",")
+          .append("\"run\":{\"runId\":\"")
+          .append(String.format("01931f88-4592-74da-b64b-%012d", i))
+          .append("\"},\"job\":{\"namespace\":\"default\",\"name\":\"job")
+          .append(i % 4)
+          .append("\"}}\n");
+    }
+    return log.toString();
+  }
+
+  private Path write(String content) throws IOException {
+    return Files.write(tempDir.resolve("spark.log"), content.getBytes(StandardCharsets.UTF_8));
+  }
+}
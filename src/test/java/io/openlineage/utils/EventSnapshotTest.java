@@ -0,0 +1,139 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.openlineage.client.OpenLineageClientUtils;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class EventSnapshotTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testSnapshotOfExample() throws IOException {
+    Path source = Files.copy(Path.of("examples/success/prev.txt"), tempDir.resolve("prev.txt"));
+    List<EventRecord> parsed = Context.parseEventRecords(source, Optional.empty());
+
+    Path snapshot = EventSnapshot.write(source, Optional.empty(), parsed);
+    assertThat(snapshot).isEqualTo(tempDir.resolve("prev.txt.olsnap"));
+    List<EventRecord> loaded = Context.getEventRecords(source.toString(), Optional.empty());
+
+    assertThat(loaded).hasSameSizeAs(parsed);
+    for (int i = 0; i < parsed.size(); i++) {
+      assertThat(loaded.get(i).getEnvelope()).isEqualTo(parsed.get(i).getEnvelope());
+      assertThat(OpenLineageClientUtils.toJson(loaded.get(i).toRunEvent()))
+          .isEqualTo(OpenLineageClientUtils.toJson(parsed.get(i).toRunEvent()));
+    }
+  }
+
+  @Test
+  void testTruncatedSnapshotIsIgnored() throws IOException {
+    Path source = write("events.json", events(0, 1, 0));
+    Path snapshot =
+        EventSnapshot.write(
+            source,
+            Optional.of(EventFormat.JSON),
+            Context.parseEventRecords(source, Optional.empty()));
+    byte[] content = Files.readAllBytes(snapshot);
+
+    // cut in the middle of the events, then in the middle of the header
+    Files.write(snapshot, Arrays.copyOf(content, content.length / 2));
+    assertThat(EventSnapshot.read(source, Optional.empty())).isEmpty();
+    assertThat(jobNames(Context.getEventRecords(source.toString(), Optional.empty())))
+        .containsExactly("job0", "job1", "job2");
+
+    Files.write(snapshot, Arrays.copyOf(content, 12));
+    assertThat(EventSnapshot.read(source, Optional.empty())).isEmpty();
+  }
+
+  @Test
+  void testDamagedSnapshotIsIgnored() throws IOException {
+    Path source = write("events.json", events(0, 1, 0));
+    Path snapshot =
+        EventSnapshot.write(
+            source,
+            Optional.of(EventFormat.JSON),
+            Context.parseEventRecords(source, Optional.empty()));
+    byte[] content = Files.readAllBytes(snapshot);
+
+    // negative count of events, after the magic, the size, the checksum and the format
+    assertDamagedIgnored(source, snapshot, content, 21, -1);
+    // unknown type of the first event, after its run id
+    assertDamagedIgnored(source, snapshot, content, 42, 100 << 24);
+    // length of its job namespace larger than the snapshot
+    assertDamagedIgnored(source, snapshot, content, 43, Integer.MAX_VALUE);
+  }
+
+  private static void assertDamagedIgnored(
+      Path source, Path snapshot, byte[] content, int offset, int value) throws IOException {
+    byte[] damaged = content.clone();
+    ByteBuffer.wrap(damaged).putInt(offset, value);
+    Files.write(snapshot, damaged);
+
+    assertThat(EventSnapshot.read(source, Optional.empty())).isEmpty();
+    assertThat(jobNames(Context.getEventRecords(source.toString(), Optional.empty())))
+        .containsExactly("job0", "job1", "job2");
+  }
+
+  @Test
+  void testStaleSnapshotIsIgnored() throws IOException {
+    Path source = write("events.json", events(0, 1));
+    EventSnapshot.write(
+        source, Optional.of(EventFormat.JSON), Context.parseEventRecords(source, Optional.empty()));
+    assertThat(EventSnapshot.read(source, Optional.empty())).isPresent();
+
+    assertThat(EventSnapshot.read(source, Optional.of(EventFormat.SPARK_LOG))).isEmpty();
+
+    // same size, different content
+    write("events.json", events(0, 2));
+    assertThat(EventSnapshot.read(source, Optional.empty())).isEmpty();
+    assertThat(jobNames(Context.getEventRecords(source.toString(), Optional.empty())))
+        .containsExactly("job0", "job1");
+
+    write("events.json", events(0, 1, 2));
+    assertThat(EventSnapshot.read(source, Optional.empty())).isEmpty();
+  }
+
+  private static List<String> jobNames(List<EventRecord> records) {
+    return records.stream().map(EventRecord::getJobName).collect(Collectors.toList());
+  }
+
+  /** Events with the given run indices, the job name of each is its position. */
+  private static String events(int... runs) {
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < runs.length; i++) {
+      json.append("{\"eventTime\":\"2024-11-12T08:40:43.714Z\",\"eventType\":\"START\",")
+          .append("\"run\":{\"runId\":\"")
+          .append(runId(runs[i]))
+          .append("\"},\"job\":{\"namespace\":\"default\",\"name\":\"job")
+          .append(i)
+          .append("\"}}\n");
+    }
+    return json.toString();
+  }
+
+  private static UUID runId(int index) {
+    return UUID.fromString(String.format("01931f88-4592-74da-b64b-%012d", index));
+  }
+
+  private Path write(String name, String content) throws IOException {
+    return Files.writeString(tempDir.resolve(name), content);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import io.openlineage.utils.FacetComparator.Mismatch;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("internal-test")
+public class FacetComparatorTest {
+
+  @Test
+  void testNextMayHaveMorePropertiesAtTheTopLevelOnly() {
+    Map<String, Object> prev = Map.of("a", 1, "b", Map.of("c", List.of("x", "y")));
+
+    assertThat(compare(prev, Map.of("a", 1, "b", Map.of("c", List.of("x", "y")), "z", 2)))
+        .isEmpty();
+    assertThat(compare(prev, Map.of("a", 1, "b", Map.of("c", List.of("x", "y"), "d", 3))))
+        .containsExactly("unexpected b.d: 3");
+  }
+
+  @Test
+  void testMismatchesHavePaths() {
+    Map<String, Object> prev = new LinkedHashMap<>();
+    prev.put("a", 1);
+    prev.put("fields", Map.of("b.c", Map.of("inputFields", List.of(Map.of("name", "x")))));
+    prev.put("list", List.of(1, 2));
+    prev.put("gone", Map.of());
+    Map<String, Object> next = new LinkedHashMap<>();
+    next.put("a", 2);
+    next.put("fields", Map.of("b.c", Map.of("inputFields", List.of(Map.of("field", "x")))));
+    next.put("list", List.of(1, 2, 3));
+
+    assertThat(compare(prev, next))
+        .containsExactly(
+            "different a: 1 <> 2",
+            "missing fields['b.c'].inputFields[0].name",
+            "different list: [2 items] <> [3 items]",
+            "missing gone");
+  }
+
+  @Test
+  void testIgnoredPropertiesAndLimit() {
+    Map<String, Object> prev = Map.of("a", 1, "b", 2, "c", 3);
+
+    assertThat(FacetComparator.compare(prev, Map.of(), IgnoredPaths.compile("a", "c")))
+        .extracting(Mismatch::getKind, Mismatch::getPath)
+        .containsExactly(tuple(Mismatch.Kind.MISSING, "b"));
+    assertThat(FacetComparator.compare(prev, Map.of(), IgnoredPaths.NONE, 2)).hasSize(2);
+    assertThat(FacetComparator.contains(prev, Map.of("a", 1, "b", 2, "c", 3), IgnoredPaths.NONE))
+        .isTrue();
+  }
+
+  @Test
+  void testDeeplyNestedFacets() {
+    Map<String, Object> prev = nested(100_000, "x");
+
+    assertThat(compare(Map.of("deep", prev), Map.of("deep", nested(100_000, "x")))).isEmpty();
+    assertThat(compare(Map.of("deep", prev), Map.of("deep", nested(100_000, "y"))))
+        .singleElement()
+        .asString()
+        .startsWith("different deep.n[0].n[0].n[0]")
+        .endsWith(".leaf: x <> y");
+  }
+
+  @Test
+  void testTreesWithEqualHashesAreNotWalked() {
+    // hashes are not updated when hashed trees are modified, equal hashes of different trees
+    StructuralHash.HashedMap prev = new StructuralHash.HashedMap();
+    prev.put("class", "Scan");
+    StructuralHash.HashedMap next = new StructuralHash.HashedMap();
+    next.put("class", "Join");
+
+    assertThat(StructuralHash.equalHashes(prev, next)).isTrue();
+    assertThat(compare(Map.of("plan", prev), Map.of("plan", next))).isEmpty();
+    assertThat(compare(Map.of("plan", List.of(prev, 1)), Map.of("plan", List.of(next, 2))))
+        .containsExactly("different plan[1]: 1 <> 2");
+  }
+
+  private static Map<String, Object> nested(int depth, String leaf) {
+    Map<String, Object> node = Map.of("leaf", leaf);
+    for (int i = 0; i < depth; i++) {
+      List<Object> children = new ArrayList<>();
+      children.add(node);
+      node = Map.of("n", children);
+    }
+    return node;
+  }
+
+  private static List<String> compare(Map<String, Object> prev, Map<String, Object> next) {
+    return FacetComparator.compare(prev, next, IgnoredPaths.NONE).stream()
+        .map(Mismatch::toString)
+        .collect(Collectors.toList());
+  }
+}
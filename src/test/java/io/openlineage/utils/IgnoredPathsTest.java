@@ -0,0 +1,145 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.openlineage.utils.IgnoredPaths.State;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class IgnoredPathsTest {
+
+  @Test
+  void testNames() {
+    IgnoredPaths ignored =
+        IgnoredPaths.compile("spark.master", "properties.spark.app.id", "a['b.c'].d", "e[1]");
+
+    assertThat(ignored.isIgnored("spark.master")).isTrue();
+    assertThat(ignored.isIgnored("spark")).isFalse();
+    assertThat(isIgnored(ignored, "spark", "master")).isTrue();
+    assertThat(isIgnored(ignored, "properties", "spark.app.id")).isTrue();
+    assertThat(isIgnored(ignored, "properties", "spark.app.id", "anything")).isTrue();
+    assertThat(isIgnored(ignored, "properties", "spark.app")).isFalse();
+    assertThat(isIgnored(ignored, "properties", "spark.app.name")).isFalse();
+    assertThat(isIgnored(ignored, "a", "b.c", "d")).isTrue();
+    assertThat(isIgnored(ignored, "e", 1)).isTrue();
+    assertThat(isIgnored(ignored, "e", 0)).isFalse();
+  }
+
+  @Test
+  void testQuotedNamesAreNotSplit() {
+    IgnoredPaths quoted = IgnoredPaths.compile("a['b.c']", "d['*']");
+    IgnoredPaths unquoted = IgnoredPaths.compile("a.b.c");
+
+    assertThat(isIgnored(quoted, "a", "b.c")).isTrue();
+    assertThat(isIgnored(quoted, "a", "b", "c")).isFalse();
+    assertThat(isIgnored(unquoted, "a", "b.c")).isTrue();
+    assertThat(isIgnored(unquoted, "a", "b", "c")).isTrue();
+    assertThat(isIgnored(quoted, "d", "*")).isTrue();
+    assertThat(isIgnored(quoted, "d", "e")).isFalse();
+  }
+
+  @Test
+  void testWildcardsAndRegexes() {
+    IgnoredPaths ignored =
+        IgnoredPaths.compile("fields.*.inputFields", "**.transformations", "/spark\\..*/.x");
+
+    assertThat(isIgnored(ignored, "fields", "a", "inputFields")).isTrue();
+    assertThat(isIgnored(ignored, "fields", "a", "b", "inputFields")).isFalse();
+    assertThat(isIgnored(ignored, "transformations")).isTrue();
+    assertThat(isIgnored(ignored, "fields", "a", 0, "transformations")).isTrue();
+    assertThat(isIgnored(ignored, "fields", "a", 0, "type")).isFalse();
+    assertThat(isIgnored(ignored, "spark.version", "x")).isTrue();
+    assertThat(isIgnored(ignored, "sparkVersion", "x")).isFalse();
+  }
+
+  @Test
+  void testNoRules() {
+    assertThat(IgnoredPaths.compile()).isSameAs(IgnoredPaths.NONE);
+    assertThat(IgnoredPaths.NONE.start().next("a")).isSameAs(IgnoredPaths.NONE.start());
+    assertThat(IgnoredPaths.NONE.isIgnored("a")).isFalse();
+  }
+
+  @Test
+  void testMalformedRules() {
+    for (String rule : List.of("", "a..b", "a.", "/a", "a['b", "a[0", "a[0]b")) {
+      assertThatThrownBy(() -> IgnoredPaths.compile(rule), rule)
+          .isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining(rule);
+    }
+  }
+
+  @Test
+  void testMalformedRuleFailsConfig(@TempDir Path tempDir) throws IOException {
+    Path config =
+        Files.writeString(
+            tempDir.resolve("config.yml"),
+            "run:\n  spark_properties:\n    ignoredProperties: [\"properties['spark\"]\n");
+
+    assertThatThrownBy(() -> Context.readConfig(config.toString()))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("properties['spark");
+    assertThatThrownBy(() -> Context.loadConfig(config.toString()))
+        .isInstanceOf(UncheckedIOException.class);
+    assertThat(
+            OlDiff.run(
+                new String[] {
+                  "--prev", "examples/success/prev.txt",
+                  "--next", "examples/success/next.txt",
+                  "--config", config.toString()
+                },
+                new PrintStream(new ByteArrayOutputStream()),
+                new PrintStream(new ByteArrayOutputStream())))
+        .isEqualTo(OlDiff.ERROR);
+  }
+
+  @Test
+  void testComparatorIgnoresNestedProperties() {
+    Map<String, Object> prev =
+        Map.of("properties", Map.of("spark.master", "local", "spark.app.name", "app"));
+
+    assertThat(
+            FacetComparator.compare(
+                prev,
+                Map.of("properties", Map.of("spark.master", "yarn", "spark.app.name", "app")),
+                IgnoredPaths.compile("properties.spark.master")))
+        .isEmpty();
+    assertThat(
+            FacetComparator.compare(
+                prev,
+                Map.of("properties", Map.of("spark.app.name", "app", "spark.driver", "x")),
+                IgnoredPaths.compile("properties.spark.master", "properties.spark.driver")))
+        .isEmpty();
+    assertThat(
+            FacetComparator.compare(
+                prev,
+                Map.of("properties", Map.of("spark.master", "local", "spark.app.name", "other")),
+                IgnoredPaths.compile("properties.spark.master")))
+        .singleElement()
+        .asString()
+        .isEqualTo("different properties['spark.app.name']: app <> other");
+  }
+
+  private static boolean isIgnored(IgnoredPaths ignored, Object... path) {
+    State state = ignored.start();
+    for (Object key : path) {
+      state = state.next(key);
+    }
+    return state.isIgnored();
+  }
+}
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import io.openlineage.client.OpenLineage;
 import io.openlineage.client.OpenLineage.InputDataset;
+import io.openlineage.client.OpenLineage.InputDatasetFacet;
 import io.openlineage.client.OpenLineage.RunEvent;
 import io.openlineage.client.utils.DatasetIdentifier;
 import java.net.URI;
@@ -122,4 +123,68 @@ public class InputDatasetHelperTest {
 
     assertThat(helper.prevFacets()).isEmpty();
   }
+
+  @Test
+  @SneakyThrows
+  void testReconciliation() {
+    OpenLineage openLineage = new OpenLineage(new URI("http://localhost:5000"));
+    nextEvents.add(
+        openLineage
+            .newRunEventBuilder()
+            .run(openLineage.newRunBuilder().runId(sparkActionId.nextRunId).build())
+            .inputs(
+                List.of(
+                    openLineage.newInputDataset("namespace", "i1", null, null),
+                    openLineage.newInputDataset("namespace", "i2", null, null),
+                    openLineage.newInputDataset("namespace", "i4", null, null)))
+            .build());
+
+    DatasetReconciliation<InputDatasetFacet> reconciliation = helper.getReconciliation();
+    assertThat(reconciliation.getMatched()).hasSize(2);
+    assertThat(reconciliation.getMissingDatasets())
+        .extracting(DatasetRecord::getName)
+        .containsExactly("i3");
+    assertThat(reconciliation.getExtraDatasets())
+        .extracting(DatasetRecord::getName)
+        .containsExactly("i4");
+    assertThat(helper.nextInputs(new DatasetIdentifier("i2", "namespace")))
+        .extracting(DatasetRecord::getName)
+        .containsExactly("i2");
+  }
+
+  @Test
+  @SneakyThrows
+  void testDatasetsAreLookedUpByTheirClassesWhenGrouped() {
+    OpenLineage openLineage = new OpenLineage(new URI("http://localhost:5000"));
+    nextEvents.add(
+        openLineage
+            .newRunEventBuilder()
+            .run(openLineage.newRunBuilder().runId(sparkActionId.nextRunId).build())
+            .inputs(
+                List.of(
+                    openLineage.newInputDataset(
+                        "warehouse",
+                        "table1",
+                        openLineage
+                            .newDatasetFacetsBuilder()
+                            .symlinks(
+                                openLineage.newSymlinksDatasetFacet(
+                                    List.of(
+                                        openLineage.newSymlinksDatasetFacetIdentifiers(
+                                            "namespace", "i1", "table"))))
+                            .build(),
+                        null)))
+            .build());
+
+    assertThat(helper.prevInputs(new DatasetIdentifier("table1", "warehouse")))
+        .extracting(DatasetRecord::getName)
+        .containsExactly("i1");
+    assertThat(helper.nextInputs(new DatasetIdentifier("i1", "namespace")))
+        .extracting(DatasetRecord::getName)
+        .containsExactly("table1");
+    // unknown datasets, including those looked up in the index of another action, have no inputs
+    assertThat(helper.prevInputs(new DatasetIdentifier("i9", "namespace"))).isEmpty();
+    assertThat(helper.getReconciliation().classOf(new DatasetIdentifier("i9", "namespace")))
+        .isEqualTo(-1);
+  }
 }
@@ -7,18 +7,12 @@ package io.openlineage.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import io.openlineage.client.OpenLineage.Dataset;
 import io.openlineage.client.OpenLineage.DatasetFacet;
 import io.openlineage.client.OpenLineage.InputDatasetFacet;
 import io.openlineage.client.utils.DatasetIdentifier;
-import io.openlineage.utils.Config.FacetConfig;
+import io.openlineage.utils.FacetDecoder.Kind;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeAll;
@@ -43,41 +37,13 @@ public class InputDatasetsCase {
   @MethodSource("sparkActionIds")
   @DisplayName("Verify input dataset names and namespaces")
   void verifyInputNames(SparkActionId sparkActionId) {
-    Set<Dataset> prev =
-        context.getPrevEvents().stream()
-            .filter(e -> sparkActionId.prevRunId.equals(e.getRun().getRunId()))
-            .flatMap(e -> e.getInputs().stream())
-            .collect(Collectors.toSet());
-
-    Set<Dataset> next =
-        context.getNextEvents().stream()
-            .filter(e -> sparkActionId.nextRunId.equals(e.getRun().getRunId()))
-            .flatMap(e -> e.getInputs().stream())
-            .collect(Collectors.toSet());
-
-    // check all from prev are in next
-    for (Dataset dataset : prev) {
-      // for each prev dataset there should be a next dataset
-      boolean found = false;
-      for (Dataset el : next) {
-        found = found || DatasetUtils.areSameName(dataset, el);
-      }
-      assertThat(found)
-          .describedAs("Dataset should have the same name {}", dataset.getName())
-          .isTrue();
-    }
+    DatasetReconciliation<InputDatasetFacet> reconciliation =
+        new InputDatasetHelper(context, sparkActionId).getReconciliation();
 
-    // check the opposite way
-    for (Dataset dataset : next) {
-      // for each prev dataset there should be a next dataset
-      boolean found = false;
-      for (Dataset el : prev) {
-        found = found || DatasetUtils.areSameName(dataset, el);
-      }
-      assertThat(found)
-          .describedAs("Dataset should have the same name {}", dataset.getName())
-          .isTrue();
-    }
+    // check all from prev are in next, and the opposite way
+    assertThat(DiffEngine.namesFailure(reconciliation))
+        .describedAs("Datasets from either events missing in the other events")
+        .isEmpty();
   }
 
   @ParameterizedTest
@@ -96,20 +62,15 @@ public class InputDatasetsCase {
     DatasetFacet nextFacet =
         datasetHelper.mergedDatasetFacets(datasetHelper.nextInputs(di)).get(facetName);
 
-    assertThat(nextFacet)
-        .overridingErrorMessage("Next facets should contain facet: " + facetName)
-        .isNotNull();
-
-    Optional<FacetConfig> facetConfig =
-        Optional.ofNullable(context.getConfig().getDataset()).map(m -> m.get(facetName));
-    Map<String, Object> checkedPrevProperties =
-        prevFacet.getAdditionalProperties().entrySet().stream()
-            .filter(e -> facetConfig.map(f -> !f.isPropertyIgnored(e.getKey())).orElse(true))
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-
-    assertThat(nextFacet.getAdditionalProperties())
-        .describedAs("Prev input facet additional properties")
-        .containsAllEntriesOf(checkedPrevProperties);
+    assertThat(
+            DiffEngine.facetFailure(
+                facetName,
+                prevFacet,
+                nextFacet,
+                context.getConfigTable().getIgnoredPaths(Kind.DATASET, facetName),
+                DatasetFacet::getAdditionalProperties))
+        .describedAs("Mismatches of prev input facet additional properties")
+        .isEmpty();
   }
 
   @ParameterizedTest
@@ -127,27 +88,19 @@ public class InputDatasetsCase {
     InputDatasetFacet nextFacet =
         datasetHelper.mergedInputDatasetFacets(datasetHelper.nextInputs(di)).get(facetName);
 
-    assertThat(nextFacet)
-        .overridingErrorMessage("Next facets should contain facet: " + facetName)
-        .isNotNull();
-
-    Optional<FacetConfig> facetConfig =
-        Optional.ofNullable(context.getConfig().getInputDataset()).map(m -> m.get(facetName));
-    log.info("FacetConfig: {} {}", facetName, facetConfig);
-    Map<String, Object> checkedPrevProperties =
-        prevFacet.getAdditionalProperties().entrySet().stream()
-            .filter(e -> facetConfig.map(f -> !f.isPropertyIgnored(e.getKey())).orElse(true))
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-
-    assertThat(nextFacet.getAdditionalProperties())
-        .describedAs("Prev input facet additional properties {}", facetName)
-        .containsAllEntriesOf(checkedPrevProperties);
+    assertThat(
+            DiffEngine.facetFailure(
+                facetName,
+                prevFacet,
+                nextFacet,
+                context.getConfigTable().getIgnoredPaths(Kind.INPUT_DATASET, facetName),
+                InputDatasetFacet::getAdditionalProperties))
+        .describedAs("Mismatches of prev input facet additional properties {}", facetName)
+        .isEmpty();
   }
 
   private static Stream<Arguments> prevInputFacets() {
     List<Arguments> arguments = new ArrayList<>();
-    Context context = Context.loadContext();
-
     context
         .getSparkActionsIds()
         .forEach(
@@ -160,10 +113,9 @@ public class InputDatasetsCase {
                               entry.getValue().stream()
                                   .filter(
                                       facet ->
-                                          Optional.ofNullable(context.getConfig().getInputDataset())
-                                              .filter(m -> m.containsKey(facet))
-                                              .filter(m -> m.get(facet).isDisabled())
-                                              .isEmpty())
+                                          !context
+                                              .getConfigTable()
+                                              .isDisabled(Kind.INPUT_DATASET, facet))
                                   .map(
                                       facetName ->
                                           Arguments.of(
@@ -185,8 +137,6 @@ public class InputDatasetsCase {
 
   private static Stream<Arguments> prevDatasetFacets() {
     List<Arguments> arguments = new ArrayList<>();
-    Context context = Context.loadContext();
-
     context
         .getSparkActionsIds()
         .forEach(
@@ -199,10 +149,7 @@ public class InputDatasetsCase {
                               entry.getValue().stream()
                                   .filter(
                                       facet ->
-                                          Optional.ofNullable(context.getConfig().getDataset())
-                                              .filter(m -> m.containsKey(facet))
-                                              .filter(m -> m.get(facet).isDisabled())
-                                              .isEmpty())
+                                          !context.getConfigTable().isDisabled(Kind.DATASET, facet))
                                   .map(
                                       facetName ->
                                           Arguments.of(datasetHelper, entry.getKey(), facetName)))
@@ -8,12 +8,9 @@ package io.openlineage.utils;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.openlineage.client.OpenLineage.JobFacet;
+import io.openlineage.utils.FacetDecoder.Kind;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -39,17 +36,9 @@ public class JobDiffCase {
   @MethodSource("sparkActionIds")
   void verifyJobNames(SparkActionId sparkActionId) {
     JobHelper jobHelper = new JobHelper(context, sparkActionId);
-    assertThat(new HashSet<>(jobHelper.prevNames()))
-        .describedAs("Set of job names from prev events. Should contain a single job name")
-        .hasSize(1);
-
-    assertThat(new HashSet<>(jobHelper.nextNames()))
-        .describedAs("Set of job names from next events. Should contain a single job name")
-        .hasSize(1);
-
-    assertThat(jobHelper.nextNames().get(0))
-        .describedAs("Next job name")
-        .isEqualTo(jobHelper.prevNames().get(0));
+    assertThat(DiffEngine.singleValueFailure(jobHelper.prevNames(), jobHelper.nextNames()))
+        .describedAs("Job names from prev and next events. Should contain the same single job name")
+        .isEmpty();
   }
 
   @DisplayName("Verifies identical job namespace")
@@ -57,19 +46,11 @@ public class JobDiffCase {
   @MethodSource("sparkActionIds")
   void verifyJobNamespace(SparkActionId sparkActionId) {
     JobHelper jobHelper = new JobHelper(context, sparkActionId);
-    assertThat(new HashSet<>(jobHelper.prevNamespaces()))
-        .describedAs(
-            "Set of job namespaces from prev events. Should contain a single job namespace")
-        .hasSize(1);
-
-    assertThat(new HashSet<>(jobHelper.nextNamespaces()))
+    assertThat(
+            DiffEngine.singleValueFailure(jobHelper.prevNamespaces(), jobHelper.nextNamespaces()))
         .describedAs(
-            "Set of job namespaces from next events. Should contain a single job namespace")
-        .hasSize(1);
-
-    assertThat(jobHelper.nextNamespaces().get(0))
-        .describedAs("Next job name")
-        .isEqualTo(jobHelper.prevNamespaces().get(0));
+            "Job namespaces from prev and next events. Should contain the same single namespace")
+        .isEmpty();
   }
 
   @ParameterizedTest
@@ -81,29 +62,19 @@ public class JobDiffCase {
       return;
     }
 
-    assertThat(nextFacet)
-        .overridingErrorMessage(
-            "Next job facets should contain prev job prevFacet: " + prevFacetName)
-        .isNotNull();
-
-    Map<String, Object> checkedPrevProperties =
-        prevFacet.getAdditionalProperties().entrySet().stream()
-            .filter(
-                e ->
-                    Optional.ofNullable(context.getConfig().getJob())
-                        .filter(m -> m.containsKey(prevFacetName))
-                        .isEmpty())
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-
-    assertThat(nextFacet.getAdditionalProperties())
-        .describedAs("Prev job facet additional properties")
-        .containsAllEntriesOf(checkedPrevProperties);
+    assertThat(
+            DiffEngine.facetFailure(
+                prevFacetName,
+                prevFacet,
+                nextFacet,
+                context.getConfigTable().getIgnoredPaths(Kind.JOB, prevFacetName),
+                JobFacet::getAdditionalProperties))
+        .describedAs("Mismatches of prev job facet additional properties")
+        .isEmpty();
   }
 
   private static Stream<Arguments> prevJobFacets() {
     List<Arguments> arguments = new ArrayList<>();
-    Context context = Context.loadContext();
-
     context
         .getSparkActionsIds()
         .forEach(
@@ -112,11 +83,7 @@ public class JobDiffCase {
               Set<Arguments> collected =
                   jobHelper.prevMergedFacets().entrySet().stream()
                       .filter(
-                          facet ->
-                              Optional.ofNullable(context.getConfig().getRun())
-                                  .filter(m -> m.containsKey(facet.getKey()))
-                                  .filter(m -> m.get(facet.getKey()).isDisabled())
-                                  .isEmpty())
+                          facet -> !context.getConfigTable().isDisabled(Kind.JOB, facet.getKey()))
                       .map(
                           e ->
                               Arguments.of(
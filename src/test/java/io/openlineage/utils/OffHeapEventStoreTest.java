@@ -0,0 +1,103 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class OffHeapEventStoreTest {
+
+  @TempDir Path tempDir;
+
+  ForkJoinPool pool = new ForkJoinPool(4);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void testRecordsDecodeLikeRecordsOnTheHeap() throws IOException {
+    StringBuilder log = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      log.append("25/03/14 10:02:19 INFO ConsoleTransport: ").append(event(i)).append('\n');
+    }
+    Path file = Files.writeString(tempDir.resolve("spark.log"), log);
+
+    List<EventRecord> onHeap = new ParallelEventLoader().load(file, EventFormat.SPARK_LOG);
+    List<EventRecord> offHeap;
+    // segments smaller than some of the events, loaded by several threads
+    try (OffHeapEventStore store = new OffHeapEventStore(1024)) {
+      offHeap = new ParallelEventLoader(pool, 4096, store).load(file, EventFormat.SPARK_LOG);
+      // events of chunks scanned from a wrong boundary are stored too
+      assertThat(store.size())
+          .isGreaterThanOrEqualTo(
+              onHeap.stream().mapToLong(r -> ((RawEventRecord) r).getJsonLength()).sum());
+    }
+
+    // the records are read after the store is closed
+    assertThat(offHeap).hasSize(500);
+    for (int i = 0; i < offHeap.size(); i++) {
+      RawEventRecord record = (RawEventRecord) offHeap.get(i);
+      RawEventRecord expected = (RawEventRecord) onHeap.get(i);
+      assertThat(record.isOffHeap()).isTrue();
+      assertThat(expected.isOffHeap()).isFalse();
+      assertThat(record.getJson()).isEqualTo(expected.getJson());
+      assertThat(record.getRunFacets().get("custom").getAdditionalProperties())
+          .isEqualTo(expected.getRunFacets().get("custom").getAdditionalProperties());
+      assertThat(record.getInputs()).hasSize(1);
+      assertThat(record.toRunEvent().getRun().getRunId()).isEqualTo(expected.getRunId());
+    }
+  }
+
+  @Test
+  void testClosedStoreRejectsEvents() throws IOException {
+    OffHeapEventStore store = new OffHeapEventStore();
+    RawEventRecord record = RawEventRecord.parse(event(1).getBytes(StandardCharsets.UTF_8));
+    store.close();
+
+    assertThatThrownBy(() -> store.store(record.getEnvelope(), ByteBuffer.wrap(record.getJson())))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void testSmallFilesStayOnTheHeap() throws IOException {
+    Path file = Files.writeString(tempDir.resolve("events.json"), event(1));
+
+    assertThat(EventStore.forSource(file)).isSameAs(EventStore.HEAP);
+    assertThat(Context.getEventRecords(file.toString(), Optional.empty()))
+        .singleElement()
+        .matches(record -> !((RawEventRecord) record).isOffHeap());
+  }
+
+  /** Event whose size grows with the index, the largest ones exceed a segment of the test. */
+  private static String event(int index) {
+    return "{\"eventTime\":\"2024-11-12T08:40:43.714Z\",\"eventType\":\"COMPLETE\","
+        + "\"run\":{\"runId\":\""
+        + String.format("01931f88-4592-74da-b64b-%012d", index)
+        + "\",\"facets\":{\"custom\":{\"padding\":\""
+        + "x".repeat(index * 3)
+        + "\"}}},\"job\":{\"namespace\":\"default\",\"name\":\"job"
+        + index
+        + "\"},\"inputs\":[{\"namespace\":\"file\",\"name\":\"/tmp/input"
+        + index
+        + "\"}]}";
+  }
+}
@@ -7,17 +7,12 @@ package io.openlineage.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import io.openlineage.client.OpenLineage.Dataset;
 import io.openlineage.client.OpenLineage.DatasetFacet;
 import io.openlineage.client.OpenLineage.OutputDatasetFacet;
 import io.openlineage.client.utils.DatasetIdentifier;
+import io.openlineage.utils.FacetDecoder.Kind;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -40,41 +35,13 @@ public class OutputDatasetsCase {
   @MethodSource("sparkActionIds")
   @DisplayName("Verify output names")
   void verifyOutputNames(SparkActionId sparkActionId) {
-    Set<Dataset> prev =
-        context.getPrevEvents().stream()
-            .filter(e -> sparkActionId.prevRunId.equals(e.getRun().getRunId()))
-            .flatMap(e -> e.getOutputs().stream())
-            .collect(Collectors.toSet());
-
-    Set<Dataset> next =
-        context.getNextEvents().stream()
-            .filter(e -> sparkActionId.nextRunId.equals(e.getRun().getRunId()))
-            .flatMap(e -> e.getOutputs().stream())
-            .collect(Collectors.toSet());
-
-    // check all from prev are in next
-    for (Dataset dataset : prev) {
-      // for each prev dataset there should be a next dataset
-      boolean found = false;
-      for (Dataset el : next) {
-        found = found || DatasetUtils.areSameName(dataset, el);
-      }
-      assertThat(found)
-          .describedAs("Dataset should have the same name {}", dataset.getName())
-          .isTrue();
-    }
+    DatasetReconciliation<OutputDatasetFacet> reconciliation =
+        new OutputDatasetHelper(context, sparkActionId).getReconciliation();
 
-    // check the opposite way
-    for (Dataset dataset : next) {
-      // for each prev dataset there should be a next dataset
-      boolean found = false;
-      for (Dataset el : prev) {
-        found = found || DatasetUtils.areSameName(dataset, el);
-      }
-      assertThat(found)
-          .describedAs("Dataset should have the same name {}", dataset.getName())
-          .isTrue();
-    }
+    // check all from prev are in next, and the opposite way
+    assertThat(DiffEngine.namesFailure(reconciliation))
+        .describedAs("Datasets from either events missing in the other events")
+        .isEmpty();
   }
 
   @ParameterizedTest
@@ -93,22 +60,15 @@ public class OutputDatasetsCase {
     DatasetFacet nextFacet =
         datasetHelper.mergedDatasetFacets(datasetHelper.nextOutputs(di)).get(facetName);
 
-    assertThat(nextFacet)
-        .overridingErrorMessage("Next facets should contain facet: " + facetName)
-        .isNotNull();
-
-    Map<String, Object> checkedPrevProperties =
-        prevFacet.getAdditionalProperties().entrySet().stream()
-            .filter(
-                e ->
-                    Optional.ofNullable(context.getConfig().getDataset())
-                        .filter(m -> m.containsKey(facetName))
-                        .isEmpty())
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-
-    assertThat(nextFacet.getAdditionalProperties())
-        .describedAs("Prev output facet additional properties")
-        .containsAllEntriesOf(checkedPrevProperties);
+    assertThat(
+            DiffEngine.facetFailure(
+                facetName,
+                prevFacet,
+                nextFacet,
+                context.getConfigTable().getIgnoredPaths(Kind.DATASET, facetName),
+                DatasetFacet::getAdditionalProperties))
+        .describedAs("Mismatches of prev output facet additional properties")
+        .isEmpty();
   }
 
   @ParameterizedTest
@@ -126,28 +86,19 @@ public class OutputDatasetsCase {
     OutputDatasetFacet nextFacet =
         datasetHelper.mergedOutputDatasetFacets(datasetHelper.nextOutputs(di)).get(facetName);
 
-    assertThat(nextFacet)
-        .overridingErrorMessage("Next facets should contain facet: " + facetName)
-        .isNotNull();
-
-    Map<String, Object> checkedPrevProperties =
-        prevFacet.getAdditionalProperties().entrySet().stream()
-            .filter(
-                e ->
-                    Optional.ofNullable(context.getConfig().getOutputDataset())
-                        .filter(m -> m.containsKey(facetName))
-                        .isEmpty())
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-
-    assertThat(nextFacet.getAdditionalProperties())
-        .describedAs("Prev output facet additional properties")
-        .containsAllEntriesOf(checkedPrevProperties);
+    assertThat(
+            DiffEngine.facetFailure(
+                facetName,
+                prevFacet,
+                nextFacet,
+                context.getConfigTable().getIgnoredPaths(Kind.OUTPUT_DATASET, facetName),
+                OutputDatasetFacet::getAdditionalProperties))
+        .describedAs("Mismatches of prev output facet additional properties")
+        .isEmpty();
   }
 
   private static Stream<Arguments> prevOutputFacets() {
     List<Arguments> arguments = new ArrayList<>();
-    Context context = Context.loadContext();
-
     context
         .getSparkActionsIds()
         .forEach(
@@ -160,11 +111,9 @@ public class OutputDatasetsCase {
                               entry.getValue().stream()
                                   .filter(
                                       facet ->
-                                          Optional.ofNullable(
-                                                  context.getConfig().getOutputDataset())
-                                              .filter(m -> m.containsKey(facet))
-                                              .filter(m -> m.get(facet).isDisabled())
-                                              .isEmpty())
+                                          !context
+                                              .getConfigTable()
+                                              .isDisabled(Kind.OUTPUT_DATASET, facet))
                                   .map(
                                       facetName ->
                                           Arguments.of(
@@ -185,8 +134,6 @@ public class OutputDatasetsCase {
 
   private static Stream<Arguments> prevDatasetFacets() {
     List<Arguments> arguments = new ArrayList<>();
-    Context context = Context.loadContext();
-
     context
         .getSparkActionsIds()
         .forEach(
@@ -199,10 +146,7 @@ public class OutputDatasetsCase {
                               entry.getValue().stream()
                                   .filter(
                                       facet ->
-                                          Optional.ofNullable(context.getConfig().getDataset())
-                                              .filter(m -> m.containsKey(facet))
-                                              .filter(m -> m.get(facet).isDisabled())
-                                              .isEmpty())
+                                          !context.getConfigTable().isDisabled(Kind.DATASET, facet))
                                   .map(
                                       facetName ->
                                           Arguments.of(
@@ -0,0 +1,116 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class ParallelEventLoaderTest {
+
+  @TempDir Path tempDir;
+
+  ForkJoinPool pool = new ForkJoinPool(4);
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void testJsonEventPerLine() {
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      json.append(event(i, "job" + i)).append("\n");
+    }
+
+    assertLoadedInOrder(write(json.toString()), EventFormat.JSON, 50);
+  }
+
+  @Test
+  void testPrettyPrintedAndConcatenatedJson() {
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      if (i % 3 == 0) {
+        // nested objects starting a line look like event boundaries
+        json.append(event(i, "job" + i).replace(",\"job\":", ",\"job\":\n")).append("\n");
+      } else {
+        json.append(event(i, "job" + i));
+      }
+    }
+
+    assertLoadedInOrder(write(json.toString()), EventFormat.JSON, 50);
+  }
+
+  @Test
+  void testEventsFromLogs() {
+    StringBuilder log = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      // job names with the marker make boundaries within events
+      String jobName = i % 4 == 0 ? "ConsoleTransport: {\\\"job\\\":" + i + "}" : "job" + i;
+      log.append("25/03/14 10:02:19 INFO DAGScheduler: Job ").append(i).append(" finished\n");
+      log.append("25/03/14 10:02:19 INFO ConsoleTransport: ").append(event(i, jobName));
+      log.append("\n");
+    }
+
+    assertLoadedInOrder(write(log.toString()), EventFormat.SPARK_LOG, 50);
+  }
+
+  @Test
+  void testMalformedEventFailsTheLoad() {
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      json.append(i == 40 ? "{\"eventType\":" : event(i, "job" + i)).append("\n");
+    }
+    Path file = write(json.toString());
+
+    assertThatThrownBy(() -> new ParallelEventLoader(pool, 64).load(file, EventFormat.JSON))
+        .isInstanceOf(IOException.class);
+  }
+
+  @SneakyThrows
+  private void assertLoadedInOrder(Path file, EventFormat format, int count) {
+    List<EventRecord> sequential = new ArrayList<>();
+    new EventFileReader(file, format).read(sequential::add);
+    assertThat(sequential).hasSize(count);
+
+    for (long chunkSize : new long[] {64, 150, 1000}) {
+      List<EventRecord> parallel = new ParallelEventLoader(pool, chunkSize).load(file, format);
+      assertThat(runIds(parallel)).isEqualTo(runIds(sequential));
+    }
+  }
+
+  private static List<String> runIds(List<EventRecord> records) {
+    return records.stream().map(r -> r.getRunId().toString()).collect(Collectors.toList());
+  }
+
+  private static String event(int index, String jobName) {
+    return "{\"eventTime\":\"2024-11-12T08:40:43.714Z\",\"eventType\":\"START\","
+        + "\"run\":{\"runId\":\""
+        + String.format("01931f88-4592-74da-b64b-%012d", index)
+        + "\"},\"job\":{\"namespace\":\"default\",\"name\":\""
+        + jobName
+        + "\"}}";
+  }
+
+  @SneakyThrows
+  private Path write(String content) {
+    return Files.writeString(tempDir.resolve("events.txt"), content);
+  }
+}
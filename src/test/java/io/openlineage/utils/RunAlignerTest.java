@@ -0,0 +1,114 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import io.openlineage.client.OpenLineage.RunEvent.EventType;
+import io.openlineage.utils.RunAligner.ActionRun;
+import io.openlineage.utils.RunAligner.RunAlignment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("internal-test")
+public class RunAlignerTest {
+
+  UUID prevApp = UUID.randomUUID();
+  UUID nextApp = UUID.randomUUID();
+  List<EventRecord> prev = new ArrayList<>();
+  List<EventRecord> next = new ArrayList<>();
+
+  @Test
+  void testExtraActionLeavesTheOthersMatched() {
+    start(prev, prevApp, "a", "b", "c");
+    start(next, nextApp, "a", "b", "x", "c");
+
+    RunAlignment alignment = RunAligner.align(prev, next, true);
+
+    assertThat(jobNames(alignment.getMatched())).containsExactly("a", "b", "c");
+    assertThat(alignment.getUnmatchedPrev()).isEmpty();
+    assertThat(alignment.getUnmatchedNext()).extracting(ActionRun::getJobName).containsExactly("x");
+    assertThat(alignment.isComplete()).isFalse();
+  }
+
+  @Test
+  void testRunsOfTheSameJobAreMatchedByOrdinal() {
+    List<EventRecord> prevStarts = start(prev, prevApp, "a", "a", "b");
+    List<EventRecord> nextStarts = start(next, nextApp, "b", "a", "a");
+    // events after START do not start runs again
+    prev.add(record(EventType.COMPLETE, prevStarts.get(0).getRunId(), "a", prevApp));
+
+    RunAlignment alignment = RunAligner.align(prev, next, true);
+
+    assertThat(alignment.isComplete()).isTrue();
+    assertThat(alignment.getMatched())
+        .extracting(SparkActionId::getPrevRunId, SparkActionId::getNextRunId)
+        .containsExactly(
+            tuple(prevStarts.get(0).getRunId(), nextStarts.get(1).getRunId()),
+            tuple(prevStarts.get(1).getRunId(), nextStarts.get(2).getRunId()),
+            tuple(prevStarts.get(2).getRunId(), nextStarts.get(0).getRunId()));
+  }
+
+  @Test
+  void testApplicationRuns() {
+    prev.add(record(EventType.START, prevApp, "app", null));
+    next.add(record(EventType.START, nextApp, "app", null));
+    start(prev, prevApp, "a");
+    start(next, nextApp, "a");
+
+    assertThat(jobNames(RunAligner.align(prev, next, true).getMatched())).containsExactly("a");
+    assertThat(jobNames(RunAligner.align(prev, next, false).getMatched()))
+        .containsExactly("app", "a");
+  }
+
+  @Test
+  void testManyActions() {
+    String[] jobs = new String[50_000];
+    for (int i = 0; i < jobs.length; i++) {
+      jobs[i] = "job" + i % 100;
+    }
+    start(prev, prevApp, jobs);
+    start(next, nextApp, jobs);
+    next.remove(next.size() - 1);
+
+    RunAlignment alignment = RunAligner.align(prev, next, true);
+
+    assertThat(alignment.getMatched()).hasSize(jobs.length - 1);
+    assertThat(alignment.getUnmatchedPrev())
+        .extracting(ActionRun::getJobName)
+        .containsExactly("job99");
+  }
+
+  private static List<String> jobNames(List<SparkActionId> actions) {
+    return actions.stream().map(SparkActionId::getJobName).collect(Collectors.toList());
+  }
+
+  private static List<EventRecord> start(List<EventRecord> records, UUID parent, String... jobs) {
+    List<EventRecord> started = new ArrayList<>();
+    for (String job : jobs) {
+      started.add(record(EventType.START, UUID.randomUUID(), job, parent));
+    }
+    records.addAll(started);
+    return started;
+  }
+
+  private static EventRecord record(EventType type, UUID runId, String job, UUID parent) {
+    return new RawEventRecord(
+        EventEnvelope.builder()
+            .eventType(type)
+            .runId(runId)
+            .jobNamespace("default")
+            .jobName(job)
+            .parentRunId(parent)
+            .build(),
+        new byte[0]);
+  }
+}
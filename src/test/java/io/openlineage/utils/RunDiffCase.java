@@ -8,13 +8,9 @@ package io.openlineage.utils;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import io.openlineage.client.OpenLineage.RunFacet;
-import io.openlineage.utils.Config.FacetConfig;
+import io.openlineage.utils.FacetDecoder.Kind;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -38,21 +34,15 @@ public class RunDiffCase {
   @DisplayName("Verify run facet {}")
   void verifyRunFacets(
       String runDesc, String prevFacetName, RunFacet prevFacet, RunFacet nextFacet) {
-    assertThat(nextFacet)
-        .overridingErrorMessage(
-            "Next run facets should contain prev run prevFacet: " + prevFacetName)
-        .isNotNull();
-
-    Optional<FacetConfig> facetConfig =
-        Optional.ofNullable(context.getConfig().getRun()).map(m -> m.get(prevFacetName));
-    Map<String, Object> checkedPrevProperties =
-        prevFacet.getAdditionalProperties().entrySet().stream()
-            .filter(e -> facetConfig.map(f -> !f.isPropertyIgnored(e.getKey())).orElse(true))
-            .collect(Collectors.toMap(Entry::getKey, Entry::getValue));
-
-    assertThat(nextFacet.getAdditionalProperties())
-        .describedAs("Prev run {} facet additional properties", runDesc)
-        .containsAllEntriesOf(checkedPrevProperties);
+    assertThat(
+            DiffEngine.facetFailure(
+                prevFacetName,
+                prevFacet,
+                nextFacet,
+                context.getConfigTable().getIgnoredPaths(Kind.RUN, prevFacetName),
+                RunFacet::getAdditionalProperties))
+        .describedAs("Mismatches of prev run {} facet additional properties", runDesc)
+        .isEmpty();
   }
 
   private static Stream<Arguments> prevRunFacets() {
@@ -65,11 +55,7 @@ public class RunDiffCase {
               arguments.addAll(
                   runHelper.prevMergedFacets().entrySet().stream()
                       .filter(
-                          facet ->
-                              Optional.ofNullable(context.getConfig().getRun())
-                                  .filter(m -> m.containsKey(facet.getKey()))
-                                  .filter(m -> m.get(facet.getKey()).isDisabled())
-                                  .isEmpty())
+                          facet -> !context.getConfigTable().isDisabled(Kind.RUN, facet.getKey()))
                       .map(
                           e ->
                               Arguments.of(
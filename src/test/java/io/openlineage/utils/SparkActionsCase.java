@@ -2,9 +2,7 @@ package io.openlineage.utils;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-import io.openlineage.client.OpenLineage.RunEvent.EventType;
-import java.util.List;
-import java.util.stream.Collectors;
+import io.openlineage.utils.RunAligner.RunAlignment;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,20 +20,21 @@ public class SparkActionsCase {
   @Test
   @DisplayName("Check if spark actions are the same")
   void checkSparkActions() {
-    List<String> prevActions =
-        context.getPrevEvents().stream()
-            .filter(e -> EventType.START.equals(e.getEventType())) // get start event
-            .map(e -> e.getJob().getName())
-            .collect(Collectors.toList());
-
-    List<String> nextActions =
-        context.getPrevEvents().stream()
-            .filter(e -> EventType.START.equals(e.getEventType())) // get start event
-            .map(e -> e.getJob().getName())
-            .collect(Collectors.toList());
-
-    assertThat(prevActions)
+    assertThat(DiffEngine.sparkActionsFailure(context.getPrevRecords(), context.getNextRecords()))
         .describedAs("Job names corresponding to the spark actions in the previous run")
-        .isEqualTo(nextActions);
+        .isEmpty();
+  }
+
+  @Test
+  @DisplayName("Check if spark action runs are matched")
+  void checkRunAlignment() {
+    RunAlignment alignment = context.getRunAlignment();
+
+    assertThat(alignment.getUnmatchedPrev())
+        .describedAs("Runs from prev events without a matching run in next events")
+        .isEmpty();
+    assertThat(alignment.getUnmatchedNext())
+        .describedAs("Runs from next events without a matching run in prev events")
+        .isEmpty();
   }
 }
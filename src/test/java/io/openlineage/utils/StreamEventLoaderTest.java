@@ -0,0 +1,200 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.airlift.compress.zstd.ZstdOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("internal-test")
+public class StreamEventLoaderTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void testGzipCompressedJson() throws IOException {
+    Path file = write("events.json.gz", gzip(json(0, 50)));
+
+    assertThat(StreamEventLoader.isPacked(file)).isTrue();
+    assertThat(runIds(Context.getEventRecords(file.toString(), Optional.empty())))
+        .isEqualTo(expectedRunIds(0, 50));
+  }
+
+  @Test
+  void testZstdCompressedLog() throws IOException {
+    Path file = write("events.log.zst", zstd(log(0, 50)));
+
+    assertThat(runIds(new StreamEventLoader().load(file, Optional.empty())))
+        .isEqualTo(expectedRunIds(0, 50));
+  }
+
+  @Test
+  void testCompressedTarballOfLogs() throws IOException {
+    ByteArrayOutputStream tar = new ByteArrayOutputStream();
+    tarEntry(tar, "logs/", '5', new byte[0]);
+    tarEntry(tar, "logs/executor-1.log", '0', log(0, 20));
+    tarEntry(tar, "logs/executor-2.log.gz", '0', gzip(log(20, 30)));
+    tar.write(new byte[TarInputStream.BLOCK_SIZE * 2]);
+    Path file = write("logs.tar.gz", gzip(tar.toByteArray()));
+
+    assertThat(runIds(new StreamEventLoader().load(file, Optional.of(EventFormat.SPARK_LOG))))
+        .isEqualTo(expectedRunIds(0, 50));
+  }
+
+  @Test
+  void testZipOfJsonFiles() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+      zip.putNextEntry(new ZipEntry("events/"));
+      zip.putNextEntry(new ZipEntry("events/1.json"));
+      zip.write(json(0, 25));
+      zip.putNextEntry(new ZipEntry("events/2.json"));
+      zip.write(json(25, 25));
+    }
+    Path file = write("events.zip", bytes.toByteArray());
+
+    assertThat(runIds(new StreamEventLoader().load(file, Optional.empty())))
+        .isEqualTo(expectedRunIds(0, 50));
+  }
+
+  @Test
+  void testEventsLargerThanTheBuffer() throws IOException {
+    for (EventFormat format : new EventFormat[] {EventFormat.JSON, EventFormat.SPARK_LOG}) {
+      byte[] content = format.isLog() ? log(0, 50) : json(0, 50);
+      for (int bufferSize : new int[] {16, 100, 1000}) {
+        List<EventRecord> records = new ArrayList<>();
+        new StreamEventScanner(new ByteArrayInputStream(content), format, bufferSize)
+            .read(records::add);
+        assertThat(runIds(records)).isEqualTo(expectedRunIds(0, 50));
+      }
+    }
+  }
+
+  @Test
+  void testTruncatedFileFailsTheLoad() throws IOException {
+    byte[] compressed = gzip(json(0, 50));
+    Path file = write("events.json.gz", Arrays.copyOf(compressed, compressed.length / 2));
+
+    assertThatThrownBy(() -> new StreamEventLoader().load(file, Optional.empty()))
+        .isInstanceOf(IOException.class);
+  }
+
+  private static List<String> runIds(List<EventRecord> records) {
+    return records.stream().map(r -> r.getRunId().toString()).collect(Collectors.toList());
+  }
+
+  private static List<String> expectedRunIds(int from, int count) {
+    List<String> runIds = new ArrayList<>();
+    for (int i = from; i < from + count; i++) {
+      runIds.add(runId(i));
+    }
+    return runIds;
+  }
+
+  private static byte[] json(int from, int count) {
+    StringBuilder json = new StringBuilder();
+    for (int i = from; i < from + count; i++) {
+      json.append(event(i, "job" + i)).append("\n");
+    }
+    return json.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] log(int from, int count) {
+    StringBuilder log = new StringBuilder();
+    for (int i = from; i < from + count; i++) {
+      String jobName = i % 4 == 0 ? "ConsoleTransport: {\\\"job\\\":" + i + "}" : "job" + i;
+      log.append("25/03/14 10:02:19 INFO DAGScheduler: Job ").append(i).append(" finished\n");
+      log.append("25/03/14 10:02:19 INFO ConsoleTransport: ").append(event(i, jobName));
+      log.append("\n");
+    }
+    return log.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String event(int index, String jobName) {
+    return "{\"eventTime\":\"2024-11-12T08:40:43.714Z\",\"eventType\":\"START\","
+        + "\"run\":{\"runId\":\""
+        + runId(index)
+        + "\"},\"job\":{\"namespace\":\"default\",\"name\":\""
+        + jobName
+        + "\"}}";
+  }
+
+  private static String runId(int index) {
+    return String.format("01931f88-4592-74da-b64b-%012d", index);
+  }
+
+  @SneakyThrows
+  private static byte[] gzip(byte[] content) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream gzip = new GZIPOutputStream(bytes)) {
+      gzip.write(content);
+    }
+    return bytes.toByteArray();
+  }
+
+  @SneakyThrows
+  private static byte[] zstd(byte[] content) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (OutputStream zstd = new ZstdOutputStream(bytes)) {
+      zstd.write(content);
+    }
+    return bytes.toByteArray();
+  }
+
+  /** Writes a ustar header followed by the content padded to the block size. */
+  @SneakyThrows
+  private static void tarEntry(ByteArrayOutputStream tar, String name, char type, byte[] content) {
+    byte[] header = new byte[TarInputStream.BLOCK_SIZE];
+    put(header, 0, name);
+    put(header, 100, "0000644");
+    put(header, 108, "0000000");
+    put(header, 116, "0000000");
+    put(header, 124, String.format("%011o", content.length));
+    put(header, 136, String.format("%011o", 0));
+    Arrays.fill(header, 148, 156, (byte) ' ');
+    header[156] = (byte) type;
+    put(header, 257, "ustar\u000000");
+    int checksum = 0;
+    for (byte b : header) {
+      checksum += b & 0xff;
+    }
+    put(header, 148, String.format("%06o\u0000 ", checksum));
+    tar.write(header);
+    tar.write(content);
+    int padding = (TarInputStream.BLOCK_SIZE - content.length % TarInputStream.BLOCK_SIZE);
+    tar.write(new byte[padding % TarInputStream.BLOCK_SIZE]);
+  }
+
+  private static void put(byte[] header, int offset, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+    System.arraycopy(bytes, 0, header, offset, bytes.length);
+  }
+
+  @SneakyThrows
+  private Path write(String name, byte[] content) {
+    return Files.write(tempDir.resolve(name), content);
+  }
+}
@@ -0,0 +1,172 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+@Tag("internal-test")
+public class StreamingDiffTest {
+
+  @TempDir Path tempDir;
+
+  UUID application = UUID.randomUUID();
+
+  @ParameterizedTest
+  @ValueSource(strings = {"success", "failure"})
+  void testSameResultsAsDiffEngine(String example) throws IOException {
+    Config config = Context.loadConfig("config.yml");
+    Path prev = Path.of("examples", example, "prev.txt");
+    Path next = Path.of("examples", example, "next.txt");
+
+    DiffReport streamed = new StreamingDiff(config, Optional.empty()).run(prev, next);
+    DiffReport loaded =
+        new DiffEngine(
+                Context.createContext(
+                    prev.toString(), next.toString(), config, Optional.empty(), e -> true))
+            .run();
+
+    assertThat(streamed.getResults())
+        .filteredOn(r -> !r.getCheck().equals("Verify spark actions"))
+        .containsExactlyInAnyOrderElementsOf(
+            loaded.getResults().stream()
+                .filter(r -> !r.getCheck().equals("Verify spark actions"))
+                .collect(Collectors.toList()));
+    assertThat(streamed.isSuccessful()).isEqualTo(loaded.isSuccessful());
+  }
+
+  @Test
+  void testCompletedRunsAreEvicted() throws IOException {
+    Config config = new Config();
+    config.setExcludeApplicationEvents(true);
+    Path prev = write("prev.json", 10_000, "x");
+    Path next = write("next.json", 10_000, "y");
+
+    StreamingDiff diff = new StreamingDiff(config, Optional.empty());
+    DiffReport report = diff.run(prev, next);
+
+    assertThat(report.getFailures()).isEqualTo(1);
+    assertThat(report.getResults())
+        .filteredOn(r -> !r.isPassed())
+        .singleElement()
+        .extracting(DiffReport.Result::getMessage)
+        .asString()
+        .contains("different value: x <> y");
+    assertThat(report.getResults())
+        .filteredOn(r -> r.getCheck().equals("Verify job name"))
+        .hasSize(10_000);
+    // both files are consumed alternately, one of them ahead of the other by at most MAX_LEAD
+    assertThat(diff.getMaxRetainedEvents()).isLessThanOrEqualTo(StreamingDiff.MAX_LEAD + 4);
+    // the ids of the actions are dropped with the application, only the applications are kept
+    assertThat(diff.getKeptRunIds()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void testUnmatchedAndUnfinishedRuns() throws IOException {
+    Path prev =
+        Files.writeString(
+            tempDir.resolve("prev.json"),
+            event("START", UUID.randomUUID(), "a", null, "v")
+                + "\n"
+                + event("START", UUID.randomUUID(), "b", null, "v"));
+    Path next =
+        Files.writeString(
+            tempDir.resolve("next.json"), event("START", UUID.randomUUID(), "a", null, "v"));
+
+    DiffReport report = new StreamingDiff(new Config(), Optional.empty()).run(prev, next);
+
+    assertThat(report.getResults())
+        .filteredOn(r -> !r.isPassed())
+        .extracting(DiffReport.Result::getCheck, DiffReport.Result::getMessage)
+        .containsExactly(
+            tuple(
+                "Verify spark actions",
+                "Job names of the spark actions differ, prev started 2, next 1"),
+            tuple("Verify spark action runs", "No matching run in next events"));
+    assertThat(report.getResults())
+        .filteredOn(r -> r.getCheck().equals("Verify job name"))
+        .singleElement()
+        .extracting(DiffReport.Result::isPassed)
+        .isEqualTo(true);
+  }
+
+  @Test
+  void testLateEventsOfComparedRunsAreIgnored() throws IOException {
+    UUID prevRun = UUID.randomUUID();
+    UUID nextRun = UUID.randomUUID();
+    Path prev =
+        Files.writeString(
+            tempDir.resolve("prev.json"),
+            String.join(
+                "\n",
+                event("START", prevRun, "a", null, "v"),
+                event("COMPLETE", prevRun, "a", null, "v"),
+                event("RUNNING", prevRun, "a", null, "late"),
+                event("COMPLETE", prevRun, "a", null, "late")));
+    Path next =
+        Files.writeString(
+            tempDir.resolve("next.json"),
+            String.join(
+                "\n",
+                event("START", nextRun, "a", null, "v"),
+                event("COMPLETE", nextRun, "a", null, "v"),
+                event("RUNNING", nextRun, "a", null, "other")));
+
+    StreamingDiff diff = new StreamingDiff(new Config(), Optional.empty());
+    DiffReport report = diff.run(prev, next);
+
+    assertThat(report.isSuccessful()).isTrue();
+    assertThat(report.getResults())
+        .filteredOn(r -> r.getCheck().equals("Verify job name"))
+        .hasSize(1);
+    assertThat(diff.getRetainedEvents()).isZero();
+  }
+
+  /** Writes an application with sequential actions, one of them with a different run facet. */
+  private Path write(String name, int actions, String value) throws IOException {
+    StringBuilder content = new StringBuilder();
+    content.append(event("START", application, "app", null, "v")).append('\n');
+    for (int i = 0; i < actions; i++) {
+      UUID runId = UUID.randomUUID();
+      String facet = i == actions / 2 ? value : "v";
+      content.append(event("START", runId, "job" + i % 10, application, facet)).append('\n');
+      content.append(event("COMPLETE", runId, "job" + i % 10, application, facet)).append('\n');
+    }
+    content.append(event("COMPLETE", application, "app", null, "v")).append('\n');
+    return Files.writeString(tempDir.resolve(name), content);
+  }
+
+  private static String event(
+      String eventType, UUID runId, String jobName, UUID parentRunId, String value) {
+    return "{\"eventTime\":\"2024-11-12T08:40:43.714Z\",\"eventType\":\""
+        + eventType
+        + "\",\"run\":{\"runId\":\""
+        + runId
+        + "\",\"facets\":{"
+        + (parentRunId == null
+            ? ""
+            : "\"parent\":{\"run\":{\"runId\":\""
+                + parentRunId
+                + "\"},\"job\":{\"namespace\":\"default\",\"name\":\"app\"}},")
+        + "\"custom\":{\"value\":\""
+        + value
+        + "\"}}},\"job\":{\"namespace\":\"default\",\"name\":\""
+        + jobName
+        + "\"}}";
+  }
+}
@@ -0,0 +1,112 @@
+/*
+/* Copyright 2018-2025 contributors to the OpenLineage project
+/* SPDX-License-Identifier: Apache-2.0
+*/
+
+package io.openlineage.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.openlineage.client.OpenLineage.RunFacet;
+import io.openlineage.utils.StructuralHash.Hashed;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("internal-test")
+public class StructuralHashTest {
+
+  @Test
+  void testEqualTreesHaveEqualHashes() {
+    Object tree = read("{\"a\":[1,2.5,\"x\",null,true],\"b\":{\"c\":{}}}");
+    Object reordered = read("{\"b\":{\"c\":{}},\"a\":[1,2.5,\"x\",null,true]}");
+
+    assertThat(tree).isInstanceOf(StructuralHash.HashedMap.class).isEqualTo(reordered);
+    assertThat(((Map<?, ?>) tree).get("a")).isInstanceOf(StructuralHash.HashedList.class);
+    assertThat(StructuralHash.of(tree)).isEqualTo(StructuralHash.of(reordered));
+  }
+
+  @Test
+  void testDifferentTreesHaveDifferentHashes() {
+    long hash = StructuralHash.of(read("{\"a\":[1,2],\"b\":\"Aa\"}"));
+
+    assertThat(StructuralHash.of(read("{\"a\":[2,1],\"b\":\"Aa\"}"))).isNotEqualTo(hash);
+    assertThat(StructuralHash.of(read("{\"a\":[1,2],\"b\":\"BB\"}"))).isNotEqualTo(hash);
+    assertThat(StructuralHash.of(read("{\"a\":[1,2],\"c\":\"Aa\"}"))).isNotEqualTo(hash);
+    assertThat(StructuralHash.of(read("{\"a\":[1,2,null],\"b\":\"Aa\"}"))).isNotEqualTo(hash);
+    assertThat(StructuralHash.of(read("{\"a\":[1,2],\"b\":\"Aa\",\"c\":null}"))).isNotEqualTo(hash);
+    assertThat(StructuralHash.of(1)).isNotEqualTo(StructuralHash.of(1L));
+    assertThat(StructuralHash.of(read("{\"a\":{}}")))
+        .isNotEqualTo(StructuralHash.of(read("{\"a\":[]}")));
+  }
+
+  @Test
+  void testHashesHaveTwoLanes() {
+    Object tree = read("{\"a\":[1,2.5,\"x\",null,true],\"b\":{\"c\":{}}}");
+    Object reordered = read("{\"b\":{\"c\":{}},\"a\":[1,2.5,\"x\",null,true]}");
+    Object different = read("{\"a\":[1,2.5,\"y\",null,true],\"b\":{\"c\":{}}}");
+
+    assertThat(StructuralHash.equalHashes(tree, reordered)).isTrue();
+    assertThat(StructuralHash.equalHashes(tree, different)).isFalse();
+    assertThat(StructuralHash.of(different, 1)).isNotEqualTo(StructuralHash.of(tree, 1));
+    // the lanes are independent hashes of the same tree
+    assertThat(StructuralHash.of(tree, 1)).isNotEqualTo(StructuralHash.of(tree, 0));
+    assertThat(StructuralHash.of("x", 1)).isNotEqualTo(StructuralHash.of("x", 0));
+  }
+
+  @Test
+  void testFacetsAreDecodedHashed() {
+    RawEventRecord record =
+        new RawEventRecord(
+            EventEnvelope.builder().build(),
+            ("{\"run\":{\"facets\":{\"spark.logicalPlan\":{\"plan\":[{\"class\":\"Project\","
+                    + "\"children\":[{\"class\":\"Scan\"}]}]}}}}")
+                .getBytes(StandardCharsets.UTF_8));
+
+    RunFacet plan = record.getRunFacets().get("spark.logicalPlan");
+
+    assertThat(plan.getAdditionalProperties().get("plan")).isInstanceOf(Hashed.class);
+    assertThat(
+            FacetComparator.compare(
+                plan.getAdditionalProperties(),
+                Map.of(
+                    "plan", read("[{\"class\":\"Project\",\"children\":[{\"class\":\"Join\"}]}]")),
+                IgnoredPaths.NONE))
+        .singleElement()
+        .asString()
+        .isEqualTo("different plan[0].children[0].class: Scan <> Join");
+  }
+
+  @Test
+  void testDeeplyNestedTreesAreRead() {
+    // Jackson rejects documents nested deeper than a thousand levels
+    Object tree = read(nested(450, "x"));
+
+    Object node = tree;
+    for (int i = 0; i < 450; i++) {
+      node = ((List<?>) ((Map<?, ?>) node).get("n")).get(0);
+    }
+    assertThat(node).isEqualTo("x");
+    assertThat(StructuralHash.of(tree)).isEqualTo(StructuralHash.of(read(nested(450, "x"))));
+    assertThat(StructuralHash.of(tree)).isNotEqualTo(StructuralHash.of(read(nested(450, "y"))));
+  }
+
+  /** JSON of objects nested in single element arrays down to the leaf. */
+  private static String nested(int depth, String leaf) {
+    return "{\"n\":[".repeat(depth) + "\"" + leaf + "\"" + "]}".repeat(depth);
+  }
+
+  /** Decodes the JSON as the value of a property of a run facet. */
+  private static Object read(String json) {
+    return new RawEventRecord(
+            EventEnvelope.builder().build(),
+            ("{\"run\":{\"facets\":{\"f\":{\"v\":" + json + "}}}}")
+                .getBytes(StandardCharsets.UTF_8))
+        .getRunFacets()
+        .get("f")
+        .getAdditionalProperties()
+        .get("v");
+  }
+}